@@ -2,8 +2,10 @@ package net.covers1624.classloader;
 
 import net.covers1624.classloader.api.*;
 import net.covers1624.classloader.api.logging.ILoggerFactory;
+import net.covers1624.classloader.internal.LazyTransformer;
 import net.covers1624.classloader.internal.logging.LogHelper;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.*;
 
@@ -35,12 +37,27 @@ import java.util.*;
  * a transformer with a higher priority will be registered before a Transformer with a lower
  * priority. The Sorting system makes no guarantee to the order the transformers will be in,
  * inside a priority, Example, 2 Transformers in the 'HIGH' group could be in any order.
+ * Transformers which only apply to some classes can declare them with {@link Targets},
+ * they are then only instantiated once the first of those classes is loaded.
  *
  * A Bouncer is a special kind of 'service', sort of. They are never run in parallel, but
  * selected via the first launch argument when using LaunchBouncer, or if only one is found,
  * perhaps in some environment where this will always be the case, you do not need to provide
  * the Bouncer's id. ID's by default are the class name, use {@link BounceId} to customize.
  *
+ * Class Data Sharing:
+ * Classes ModularClassLoader shares from its parent, the JDK and anything on the classpath
+ * already loaded by the system ClassLoader, can be archived with CDS. Launching with
+ * '-Dcovers1624.classloader.cds_list=&lt;file&gt;' records these and writes them as a class list
+ * on exit, see {@link ModularClassLoader#recordSharedClasses()}. A full recipe, for JDK 10+:
+ * <pre>
+ *   java -Dcovers1624.classloader.cds_list=app.classlist -cp &lt;cp&gt; net.covers1624.classloader.LaunchBouncer &lt;args&gt;
+ *   java -Xshare:dump -XX:SharedClassListFile=app.classlist -XX:SharedArchiveFile=app.jsa -cp &lt;cp&gt;
+ *   java -Xshare:auto -XX:SharedArchiveFile=app.jsa -cp &lt;cp&gt; net.covers1624.classloader.LaunchBouncer &lt;args&gt;
+ * </pre>
+ * The classpath must be the same for all three, and must only contain jars. On Oracle JDK 8,
+ * dumping and running additionally require '-XX:+UnlockCommercialFeatures -XX:+UseAppCDS'.
+ *
  * Created by covers1624 on 10/11/2017.
  */
 public class LaunchBouncer {
@@ -51,8 +68,22 @@ public class LaunchBouncer {
     public static void main(String[] args) throws Throwable {
         classLoader = new ModularClassLoader();
         Thread.currentThread().setContextClassLoader(classLoader);
+        String classList = System.getProperty("covers1624.classloader.cds_list");
+        if (classList != null) {
+            ModularClassLoader cl = classLoader;
+            cl.recordSharedClasses();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    cl.writeClassList(new File(classList));
+                } catch (IOException e) {
+                    System.err.println("Failed to write CDS class list to " + classList);
+                    e.printStackTrace();
+                }
+            }, "ModularClassLoader CDS"));
+        }
         //Force the system classloader to load these.
         Sort.class.getName();
+        Targets.class.getName();
         BounceId.class.getName();
         UseClassLoaderASM.class.getName();
         EnvVar.class.getName();
@@ -79,19 +110,8 @@ public class LaunchBouncer {
         }
         while (newStuff);
 
-        SimpleServiceLoader<IClassTransformer> transformerLoader = new SimpleServiceLoader<>(IClassTransformer.class, classLoader);
-        Map<Priority, List<IClassTransformer>> priorityMap = new HashMap<>();
-        transformerLoader.poll();
-        for (Class<IClassTransformer> transformerClazz : transformerLoader.getAllServices()) {
-            Sort ann = transformerClazz.getAnnotation(Sort.class);
-            Priority priority = ann != null ? ann.value() : Priority.NORMAL;
-            priorityMap.computeIfAbsent(priority, e -> new ArrayList<>()).add(transformerClazz.newInstance());
-        }
-
-        for (Priority priority : Priority.values()) {
-            for (IClassTransformer transformer : priorityMap.getOrDefault(priority, Collections.emptyList())) {
-                classLoader.addTransformer(transformer);
-            }
+        for (IClassTransformer transformer : loadTransformers(classLoader)) {
+            classLoader.addTransformer(transformer);
         }
 
         SimpleServiceLoader<IBounceClass> bounceLoader = new SimpleServiceLoader(IBounceClass.class, classLoader);
@@ -170,6 +190,34 @@ public class LaunchBouncer {
         }
     }
 
+    /**
+     * Finds and instantiates all IClassTransformers registered as services
+     * visible to the given ClassLoader, in their {@link Sort} order.
+     * Transformers annotated with {@link Targets} are wrapped in a {@link LazyTransformer}
+     * instead of being instantiated.
+     *
+     * @param classLoader The ClassLoader.
+     * @return The transformers, in registration order.
+     */
+    public static List<IClassTransformer> loadTransformers(ClassLoader classLoader) throws ReflectiveOperationException {
+        SimpleServiceLoader<IClassTransformer> transformerLoader = new SimpleServiceLoader<>(IClassTransformer.class, classLoader);
+        Map<Priority, List<IClassTransformer>> priorityMap = new HashMap<>();
+        transformerLoader.poll();
+        for (Class<IClassTransformer> transformerClazz : transformerLoader.getAllServices()) {
+            Sort ann = transformerClazz.getAnnotation(Sort.class);
+            Priority priority = ann != null ? ann.value() : Priority.NORMAL;
+            Targets targets = transformerClazz.getAnnotation(Targets.class);
+            IClassTransformer transformer = targets != null ? new LazyTransformer(transformerClazz, targets) : transformerClazz.newInstance();
+            priorityMap.computeIfAbsent(priority, e -> new ArrayList<>()).add(transformer);
+        }
+
+        List<IClassTransformer> transformers = new ArrayList<>();
+        for (Priority priority : Priority.values()) {
+            transformers.addAll(priorityMap.getOrDefault(priority, Collections.emptyList()));
+        }
+        return transformers;
+    }
+
     private static void invoke(BounceState state, String[] args) throws Throwable {
         if (state.useASM) {
             classLoader.useASMHacks();
@@ -0,0 +1,206 @@
+package net.covers1624.classloader;
+
+import net.covers1624.classloader.api.IClassTransformer;
+import net.covers1624.classloader.api.IResourceResolver;
+import net.covers1624.classloader.scan.ClassInfo;
+import net.covers1624.classloader.scan.ClassScanner;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A layer of modules, each with its own {@link ModularClassLoader}, similar to a JPMS layer.
+ *
+ * Every module declares the packages it owns, a package may only be owned by a single
+ * module per layer. All loaders in the layer share the layer's package to loader map,
+ * a class in a package owned by another module is delegated straight to that module's
+ * loader, rather than falling through a chain of parents. Packages owned by no module
+ * in the layer are looked up in the parent layers, then loaded by the layer's parent
+ * ClassLoader. Lookup cost depends only on the depth of layers, not the number of modules.
+ *
+ * Module loaders only define classes from their own resolvers, in their own packages,
+ * so platform classes from the parent ClassLoader are shared by all modules. Resources
+ * are routed the same way, by the package of their path, resources outside all modules'
+ * packages, such as 'META-INF/services/', come from the parent ClassLoader, then the
+ * module's own resolvers.
+ * Transformers are registered per layer, and apply to every module in the layer.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class LoaderLayer {
+
+    private final ClassLoader parent;
+    @Nullable
+    private final LoaderLayer parentLayer;
+
+    private final Map<String, ModularClassLoader> packages = new ConcurrentHashMap<>();
+    private final Map<String, ModularClassLoader> modules = new LinkedHashMap<>();
+    private final List<IClassTransformer> transformers = new ArrayList<>();
+
+    /**
+     * Creates a root layer.
+     *
+     * @param parent The ClassLoader to load classes outside all modules from.
+     */
+    public LoaderLayer(ClassLoader parent) {
+        this(parent, null);
+    }
+
+    private LoaderLayer(ClassLoader parent, @Nullable LoaderLayer parentLayer) {
+        this.parent = parent;
+        this.parentLayer = parentLayer;
+    }
+
+    /**
+     * Creates a child layer, whose modules can see the modules of this layer.
+     * Modules in the child may own packages also owned in this layer, shadowing them.
+     * Transformers registered to this layer do not apply to the child.
+     *
+     * @return The child layer.
+     */
+    public LoaderLayer createChild() {
+        return new LoaderLayer(parent, this);
+    }
+
+    /**
+     * Defines a new module in this layer.
+     *
+     * @param name      The name of the module, unique to this layer.
+     * @param packages  The packages the module owns, E.G: 'net.covers1624.classloader'.
+     * @param resolvers The resolvers providing the module's classes and resources.
+     * @return The module's ClassLoader.
+     * @throws IllegalStateException If the name or any package is already taken in this layer.
+     */
+    public ModularClassLoader defineModule(String name, Collection<String> packages, IResourceResolver... resolvers) {
+        synchronized (modules) {
+            if (modules.containsKey(name)) {
+                throw new IllegalStateException("Module '" + name + "' already defined in layer.");
+            }
+            for (String pkg : packages) {
+                ModularClassLoader owner = this.packages.get(pkg);
+                if (owner != null) {
+                    throw new IllegalStateException("Package '" + pkg + "' of module '" + name + "' already owned by module '" + getName(owner) + "'.");
+                }
+            }
+            ModularClassLoader loader = new ModularClassLoader(parent, this);
+            for (IResourceResolver resolver : resolvers) {
+                loader.addResolver(resolver);
+            }
+            for (IClassTransformer transformer : transformers) {
+                loader.addTransformer(transformer);
+            }
+            modules.put(name, loader);
+            for (String pkg : packages) {
+                this.packages.put(pkg, loader);
+            }
+            return loader;
+        }
+    }
+
+    /**
+     * Defines a new module in this layer, owning the packages of all classes visible
+     * through the given resolvers. The packages are found by scanning the resolvers,
+     * see {@link ClassScanner#scanResolvers(List)}, prefer providing them when known.
+     * Classes in resolvers which can't be scanned are not considered.
+     *
+     * @param name      The name of the module, unique to this layer.
+     * @param resolvers The resolvers providing the module's classes and resources.
+     * @return The module's ClassLoader.
+     * @throws IOException           If a root could not be scanned.
+     * @throws IllegalStateException If the name or any package is already taken in this layer.
+     */
+    public ModularClassLoader defineModule(String name, IResourceResolver... resolvers) throws IOException {
+        Set<String> packages = new LinkedHashSet<>();
+        for (ClassInfo info : new ClassScanner().scanResolvers(Arrays.asList(resolvers)).getClasses()) {
+            packages.add(packageOf(info.getName()));
+        }
+        return defineModule(name, packages, resolvers);
+    }
+
+    /**
+     * Registers a transformer to all modules in this layer, including those defined later.
+     *
+     * @param transformer The transformer.
+     */
+    public void addTransformer(IClassTransformer transformer) {
+        synchronized (modules) {
+            transformers.add(transformer);
+            for (ModularClassLoader loader : modules.values()) {
+                loader.addTransformer(transformer);
+            }
+        }
+    }
+
+    /**
+     * Finds the loader owning the package of the given class, in this layer or its parents.
+     *
+     * @param className The class, E.G: 'net.covers1624.classloader.LoaderLayer'.
+     * @return The owning loader, null if no module owns the package.
+     */
+    @Nullable
+    public ModularClassLoader findLoader(String className) {
+        return findPackageLoader(packageOf(className));
+    }
+
+    /**
+     * Finds the loader owning the given package, in this layer or its parents.
+     *
+     * @param pkg The package, E.G: 'net.covers1624.classloader'.
+     * @return The owning loader, null if no module owns the package.
+     */
+    @Nullable
+    public ModularClassLoader findPackageLoader(String pkg) {
+        for (LoaderLayer layer = this; layer != null; layer = layer.parentLayer) {
+            ModularClassLoader loader = layer.packages.get(pkg);
+            if (loader != null) {
+                return loader;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param name The module name.
+     * @return The module's ClassLoader, null if no such module exists in this layer.
+     */
+    @Nullable
+    public ModularClassLoader getModule(String name) {
+        synchronized (modules) {
+            return modules.get(name);
+        }
+    }
+
+    /**
+     * @return The names of the modules in this layer, in definition order.
+     */
+    public List<String> getModuleNames() {
+        synchronized (modules) {
+            return new ArrayList<>(modules.keySet());
+        }
+    }
+
+    /**
+     * @return The parent layer, null for a root layer.
+     */
+    @Nullable
+    public LoaderLayer getParent() {
+        return parentLayer;
+    }
+
+    //Must hold the modules lock.
+    private String getName(ModularClassLoader loader) {
+        for (Map.Entry<String, ModularClassLoader> entry : modules.entrySet()) {
+            if (entry.getValue() == loader) {
+                return entry.getKey();
+            }
+        }
+        return "unknown";
+    }
+
+    private static String packageOf(String className) {
+        int idx = className.lastIndexOf('.');
+        return idx == -1 ? "" : className.substring(0, idx);
+    }
+}
@@ -1,23 +1,44 @@
 package net.covers1624.classloader;
 
+import net.covers1624.classloader.api.IClassDefinitionListener;
 import net.covers1624.classloader.api.IClassTransformer;
 import net.covers1624.classloader.api.IResourceResolver;
+import net.covers1624.classloader.cache.ResourceCache;
+import net.covers1624.classloader.internal.ClassTable;
 import net.covers1624.classloader.internal.ProtectedAccessor;
+import net.covers1624.classloader.internal.TransformedClassStore;
+import net.covers1624.classloader.internal.TransformerDispatcher;
+import net.covers1624.classloader.internal.WeakValueMap;
+import net.covers1624.classloader.internal.jfr.*;
 import net.covers1624.classloader.api.logging.ILogger;
 import net.covers1624.classloader.internal.logging.LogHelper;
 import net.covers1624.classloader.internal.logging.impl.NoopLogger;
+import net.covers1624.classloader.profiling.LoadProfiler;
+import net.covers1624.classloader.profiling.LoadProfiler.Stage;
+import net.covers1624.classloader.profiling.MemoryStats;
+import net.covers1624.classloader.scan.ClassHierarchy;
+import net.covers1624.classloader.scan.ClassIndex;
+import net.covers1624.classloader.scan.ClassScanner;
 import org.jetbrains.annotations.Nullable;
 import sun.misc.CompoundEnumeration;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiFunction;
 
 /**
@@ -48,8 +69,64 @@ import java.util.function.BiFunction;
  * that has access to the needed method, this generated class also implements BiFunction meaning its
  * entirely optional and a drop in replacement for the existing reflection.
  *
+ * {@link #useGeneratedDispatcher()} similarly uses ASM, to generate a class which runs
+ * the registered transformers from separate, monomorphic call sites, allowing the JIT
+ * to inline them. See {@link net.covers1624.classloader.internal.TransformerDispatcherGenerator}.
+ *
  * ModularClassLoader is also parallel compatible.
  *
+ * Child loaders.
+ * {@link #createChild()} spawns a lightweight, disposable ModularClassLoader for
+ * things like reloadable plugins. Children resolve resources through their parent's
+ * resolvers, inherit its transformers, and share a content addressed store of
+ * transformed class bytes with it, so a class that has already been transformed
+ * is never transformed again. Only classes found via the child's own resolvers are
+ * defined by the child, everything else is delegated to the parent. The child's
+ * caches only weakly hold their values, and the parent holds no reference to its
+ * children, so a discarded child and its classes can be collected promptly.
+ *
+ * Module layers.
+ * {@link LoaderLayer} groups several ModularClassLoaders into modules, each owning a set
+ * of packages. Loaders in a layer share its package to loader map, and delegate classes
+ * in packages owned by other modules directly to the owning loader.
+ *
+ * Scanning.
+ * {@link #scanClasses()} builds a {@link ClassIndex} of the classes, super types and
+ * class annotations visible through the registered resolvers, by parsing only the
+ * class file headers. Nothing is loaded, defined or transformed, making it suitable
+ * for discovering annotated classes without paying for their definition.
+ * {@link #getClassHierarchy()} similarly answers super class and interface queries for
+ * transformers, so computing frames never loads classes mid transform.
+ *
+ * Asynchronous loading.
+ * {@link #loadClassAsync(String)} and {@link #loadClassesAsync(Collection)} load classes
+ * on an executor, so callers that know which classes they will need can overlap resolver
+ * I/O, transformation and definition with their own work. Concurrent requests for the same
+ * class share a single load. See {@link #setAsyncExecutor(Executor)}.
+ *
+ * Resource caching.
+ * {@link #enableResourceCache(long, int)} caches the contents of non class resources read via
+ * {@link #getResourceAsBytes} and {@link #getResourceAsStream}, so frequently read resources are
+ * not repeatedly resolved and inflated. The cache is bounded by size, and dropped whenever the
+ * resolvers of this loader or any parent ModularClassLoader change. See {@link ResourceCache}.
+ *
+ * Slow resolvers.
+ * Resolvers backed by slow storage can mark themselves via {@link IResourceResolver#isSlow()}.
+ * With {@link #enableConcurrentLookup()}, each lookup queries the slow resolvers concurrently,
+ * so a miss on one no longer delays the whole lookup, whilst keeping the resolver order.
+ *
+ * Memory accounting.
+ * {@link #getMemoryStats()} reports what the loader is retaining, defined classes and their
+ * bytes, the class cache, class loading locks, shared transformed bytes, the resource cache,
+ * and the classes read from each resolver. See {@link MemoryStats}.
+ *
+ * Profiling.
+ * {@link #enableProfiler(long)} records class loading lock contention, per stage latency
+ * histograms and slow loads, see {@link LoadProfiler}.
+ * When running on a JVM with Java Flight Recorder, ModularClassLoader emits events
+ * under the 'ModularClassLoader' category for each resolver lookup, transformer
+ * invocation, transformer abort and class definition. See {@link JfrSupport}.
+ *
  * Several random utilities also exist here, because they can.
  *
  * Created by covers1624 on 30/10/2017.
@@ -65,21 +142,70 @@ public final class ModularClassLoader extends ClassLoader {
     private static final boolean ONE_TRY_ASM = Boolean.getBoolean("covers1624.classloader.one_try");
     private static final boolean DEBUG = Boolean.getBoolean("covers1624.classloader.debug");
     private static final boolean DUMP = Boolean.getBoolean("covers1624.classloader.dump");
+    private static final boolean JFR = JfrSupport.ENABLED;
+    private static final AtomicInteger chainCounter = new AtomicInteger();
+    private static final AtomicInteger dispatcherCounter = new AtomicInteger();
+    private static final long PROFILE_THRESHOLD = Long.getLong("covers1624.classloader.profile", -1);
+    //Loaders profiled via the above, reported by a single shutdown hook. Weak, so discarded loaders aren't retained.
+    private static final Set<ModularClassLoader> profiledLoaders = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private static final AtomicBoolean profileHook = new AtomicBoolean();
+    //ClassLoader's per class lock map, for memory accounting. Null if inaccessible.
+    @Nullable
+    private static final Field PARALLEL_LOCK_MAP = findParallelLockMap();
 
     private final ClassLoader parent;
+    //Only set for loaders created via createChild.
+    @Nullable
+    private final ModularClassLoader parentModular;
+    //Only set for module loaders created via LoaderLayer.
+    @Nullable
+    private final LoaderLayer layer;
 
     //Transformer state information.
     private final ThreadLocal<Deque<IClassTransformer>> transformerStack = ThreadLocal.withInitial(ArrayDeque::new);
     private final ThreadLocal<Deque<String>> classTransformingStack = ThreadLocal.withInitial(ArrayDeque::new);
 
-    private List<IClassTransformer> transformers = new ArrayList<>();
-    private List<IResourceResolver> resolvers = new ArrayList<>();
+    //Registrations are copy on write, lookups iterate a stable snapshot without locking.
+    private final Object registrationLock = new Object();
+    private volatile IClassTransformer[] transformers = new IClassTransformer[0];
+    private volatile RegisteredResolver[] resolvers = new RegisteredResolver[0];
 
-    private Map<String, byte[]> definedClazzBytes = new ConcurrentHashMap<>();
-    private Map<String, Class<?>> clazzCache = new ConcurrentHashMap<>();
+    private Map<String, byte[]> definedClazzBytes = new ClassTable<>();
+    private Map<String, Class<?>> clazzCache = new ClassTable<>();
     private BiFunction<ClassLoader, String, Class> parentLookup;
     private boolean injected = false;
 
+    //Shared transformed bytes, lazily created the first time a child is spawned.
+    private volatile TransformedClassStore classStore;
+    //Identifies the current transformer chain for classStore lookups.
+    private volatile int transformerChain = chainCounter.getAndIncrement();
+    //Generated transformer chain, when enabled.
+    private boolean useDispatcher = false;
+    private volatile TransformerDispatcher dispatcher;
+    @Nullable
+    private volatile LoadProfiler profiler;
+    //Lazily created, caches scan results for unchanged roots.
+    private ClassScanner scanner;
+    //Lazily created, see getClassHierarchy.
+    @Nullable
+    private volatile ClassHierarchy hierarchy;
+    //In flight loadClassAsync requests, so concurrent requests share a load.
+    private final Map<String, CompletableFuture<Class<?>>> asyncLoads = new ConcurrentHashMap<>();
+    @Nullable
+    private volatile Executor asyncExecutor;
+    //Set when slow resolvers are looked up concurrently.
+    @Nullable
+    private volatile Executor lookupExecutor;
+    private volatile boolean hasSlowResolvers;
+    private volatile boolean hasDefinitionListeners;
+    @Nullable
+    private volatile ResourceCache resourceCache;
+    //Bumped whenever a resolver is added, invalidates resourceCache.
+    private final AtomicLong resolverGeneration = new AtomicLong();
+    //Classes served by the parent which CDS can archive, when recording.
+    @Nullable
+    private volatile Set<String> sharedClasses;
+
     static {
         ClassLoader.registerAsParallelCapable();
         refreshLogger();
@@ -90,12 +216,81 @@ public final class ModularClassLoader extends ClassLoader {
     }
 
     public ModularClassLoader(ClassLoader parent) {
+        this(parent, (LoaderLayer) null);
+    }
+
+    //Module loaders don't resolve through their parent, classes outside the layer's modules are always the parent's.
+    ModularClassLoader(ClassLoader parent, @Nullable LoaderLayer layer) {
         super(parent);
         this.parent = parent;
-        if (parent != null) {
+        parentModular = null;
+        this.layer = layer;
+        if (parent != null && layer == null) {
             addResolver(IResourceResolver.fromClassLoader(parent));
         }
         reflect();
+        if (PROFILE_THRESHOLD >= 0) {
+            enableProfiler(PROFILE_THRESHOLD);
+            profiledLoaders.add(this);
+            if (profileHook.compareAndSet(false, true)) {
+                Runtime.getRuntime().addShutdownHook(new Thread(ModularClassLoader::reportProfiles, "ModularClassLoader Profiler"));
+            }
+        }
+    }
+
+    private ModularClassLoader(ModularClassLoader parent, TransformedClassStore classStore) {
+        super(parent);
+        this.parent = parent;
+        parentModular = parent;
+        layer = null;
+        this.classStore = classStore;
+        transformers = parent.transformers;
+        transformerChain = parent.transformerChain;
+        parentLookup = parent.parentLookup;
+        injected = parent.injected;
+        useDispatcher = parent.useDispatcher;
+        dispatcher = parent.dispatcher;
+        profiler = parent.profiler;
+        asyncExecutor = parent.asyncExecutor;
+        lookupExecutor = parent.lookupExecutor;
+        definedClazzBytes = new WeakValueMap<>();
+        clazzCache = new WeakValueMap<>();
+    }
+
+    /**
+     * Creates a lightweight child of this ModularClassLoader.
+     * The child has no resolvers of its own, register them via {@link #addResolver}.
+     * Only classes found by the child's own resolvers are defined by the child,
+     * the rest are loaded through this ModularClassLoader. Transformers registered
+     * on this loader at the time of the call are inherited, further transformers
+     * may be added to either loader independently.
+     *
+     * Children share a store of transformed class bytes, so a class file loaded by
+     * several children, or reloaded unchanged, is only transformed once. To look it up,
+     * a child computes a SHA-1 of each class it reads from its own resolvers, before
+     * transforming. This loader doesn't use the store for its own classes, and so
+     * doesn't pay for the digest.
+     *
+     * @return The child.
+     */
+    public ModularClassLoader createChild() {
+        TransformedClassStore store = classStore;
+        if (store == null) {
+            synchronized (this) {
+                store = classStore;
+                if (store == null) {
+                    classStore = store = new TransformedClassStore();
+                }
+            }
+        }
+        return new ModularClassLoader(this, store);
+    }
+
+    /**
+     * @return If this loader was created via {@link #createChild()}.
+     */
+    public boolean isChild() {
+        return parentModular != null;
     }
 
     private void reflect() {
@@ -147,6 +342,246 @@ public final class ModularClassLoader extends ClassLoader {
         }
     }
 
+    /**
+     * Call this if you have the ObjectWeb ASM library installed,
+     * A class is generated to run the registered transformers, each
+     * from its own call site, instead of looping over them through a
+     * single megamorphic call site. The class is regenerated each time
+     * a transformer is added.
+     */
+    public void useGeneratedDispatcher() {
+        logger.trace("Enabling generated transformer dispatcher.");
+        synchronized (registrationLock) {
+            if (!useDispatcher) {
+                useDispatcher = true;
+                regenerateDispatcher();
+            }
+        }
+    }
+
+    //Must be called whilst holding the registration lock.
+    private void regenerateDispatcher() {
+        dispatcher = null;
+        IClassTransformer[] transformers = this.transformers;
+        if (!useDispatcher || transformers.length == 0) {
+            return;
+        }
+        try {
+            //Called via reflection for the same reasons as useASMHacks.
+            Class<?> clazz = Class.forName("net.covers1624.classloader.internal.TransformerDispatcherGenerator", true, this);
+            Method m = clazz.getDeclaredMethod("spinClass", String.class, int.class);
+            m.setAccessible(true);
+            String name = "net.covers1624.classloader.internal.TransformerDispatcher$$" + dispatcherCounter.getAndIncrement();
+            byte[] bytes = (byte[]) m.invoke(null, name.replace(".", "/"), transformers.length);
+            Class<?> dispatcherClass = new DispatcherClassLoader().define(name, bytes);
+            dispatcher = (TransformerDispatcher) dispatcherClass.getConstructor(IClassTransformer[].class)//
+                    .newInstance((Object) transformers.clone());
+        } catch (Throwable t) {
+            logger.error("Failed to generate transformer dispatcher.", t);
+            useDispatcher = false;
+            if (ONE_TRY_ASM) {
+                throw new RuntimeException(t);
+            }
+            if (logger.isNoop()) {
+                System.err.println("Failed to generate transformer dispatcher.");
+                t.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Enables profiling of class loading, See {@link LoadProfiler}.
+     * Children created after this call share the profiler.
+     *
+     * @param slowThresholdMillis Loads taking at least this long are flagged as slow.
+     * @return The profiler.
+     */
+    public LoadProfiler enableProfiler(long slowThresholdMillis) {
+        LoadProfiler profiler = new LoadProfiler(slowThresholdMillis);
+        this.profiler = profiler;
+        return profiler;
+    }
+
+    //Reports each live profiled loader, once per profiler, children share their parent's.
+    //Not via 'logger', profiling is requested separately from debug logging.
+    private static void reportProfiles() {
+        ILogger logger = LogHelper.getLogger("ModularClassLoader");
+        List<ModularClassLoader> loaders;
+        synchronized (profiledLoaders) {
+            loaders = new ArrayList<>(profiledLoaders);
+        }
+        Set<LoadProfiler> reported = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ModularClassLoader loader : loaders) {
+            LoadProfiler profiler = loader.profiler;
+            if (profiler != null && reported.add(profiler)) {
+                logger.info("Class loading profile for {}:\n{}", loader, profiler.report());
+            }
+        }
+    }
+
+    /**
+     * Disables profiling.
+     */
+    public void disableProfiler() {
+        profiler = null;
+    }
+
+    /**
+     * @return The active profiler, null if profiling is disabled.
+     */
+    @Nullable
+    public LoadProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Enables caching of non class resource contents, See {@link ResourceCache}.
+     * Not inherited by children.
+     *
+     * @param maxBytes      The maximum total size of cached resources.
+     * @param maxEntryBytes The maximum size of a single cached resource, larger resources are always read.
+     * @return The cache.
+     */
+    public ResourceCache enableResourceCache(long maxBytes, int maxEntryBytes) {
+        ResourceCache cache = new ResourceCache(maxBytes, maxEntryBytes);
+        resourceCache = cache;
+        return cache;
+    }
+
+    /**
+     * Disables and drops the resource cache.
+     */
+    public void disableResourceCache() {
+        resourceCache = null;
+    }
+
+    /**
+     * @return The resource cache, null if disabled.
+     */
+    @Nullable
+    public ResourceCache getResourceCache() {
+        return resourceCache;
+    }
+
+    /**
+     * Starts recording the classes this loader shares from its parent, which were defined
+     * by the bootstrap, extension or system ClassLoaders. These are exactly the classes
+     * which can benefit from JDK Class Data Sharing, see {@link #writeClassList(File)}.
+     */
+    public void recordSharedClasses() {
+        if (sharedClasses == null) {
+            synchronized (this) {
+                if (sharedClasses == null) {
+                    sharedClasses = ConcurrentHashMap.newKeySet();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The recorded shared classes, in 'java/lang/Object' form, sorted. Empty if not recording.
+     */
+    public List<String> getSharedClasses() {
+        Set<String> sharedClasses = this.sharedClasses;
+        if (sharedClasses == null) {
+            return Collections.emptyList();
+        }
+        List<String> list = new ArrayList<>(sharedClasses);
+        Collections.sort(list);
+        return list;
+    }
+
+    /**
+     * Writes the recorded shared classes as a class list, as used by '-XX:SharedClassListFile'
+     * to dump a CDS archive. See {@link LaunchBouncer} for a launch recipe.
+     *
+     * @param file The file to write to.
+     * @throws IOException If the file could not be written.
+     */
+    public void writeClassList(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        Files.write(file.toPath(), getSharedClasses(), StandardCharsets.UTF_8);
+    }
+
+    //Records a class served by the parent, if CDS could archive it.
+    private void recordShared(Class<?> c) {
+        Set<String> sharedClasses = this.sharedClasses;
+        if (sharedClasses != null && !c.isArray() && !c.isPrimitive()) {
+            ClassLoader loader = c.getClassLoader();
+            ClassLoader system = getSystemClassLoader();
+            if (loader == null || loader == system || loader == system.getParent()) {
+                sharedClasses.add(c.getName().replace('.', '/'));
+            }
+        }
+    }
+
+    /**
+     * Takes a snapshot of what this loader is retaining, see {@link MemoryStats}.
+     * Children are accounted separately.
+     *
+     * @return The snapshot.
+     */
+    public MemoryStats getMemoryStats() {
+        long definedBytes = 0;
+        int defined = 0;
+        for (byte[] bytes : definedClazzBytes.values()) {
+            definedBytes += bytes.length;
+            defined++;
+        }
+        int lockMapSize = -1;
+        if (PARALLEL_LOCK_MAP != null) {
+            try {
+                Map<?, ?> locks = (Map<?, ?>) PARALLEL_LOCK_MAP.get(this);
+                lockMapSize = locks != null ? locks.size() : 0;
+            } catch (IllegalAccessException ignored) {
+            }
+        }
+        List<MemoryStats.ResolverStats> resolverStats = new ArrayList<>();
+        RegisteredResolver[] resolvers = this.resolvers;
+        for (int i = 0; i < resolvers.length; i++) {
+            RegisteredResolver registered = resolvers[i];
+            IResourceResolver resolver = registered.resolver;
+            Collection<URL> roots = resolver.getRoots();
+            String name = resolver.getClass().getName() + (roots.isEmpty() ? "" : " " + (roots.size() == 1 ? roots.iterator().next() : roots.size() + " roots"));
+            List<MemoryStats.RootStats> rootStats = new ArrayList<>(registered.roots.size());
+            registered.roots.forEach((root, counters) -> rootStats.add(new MemoryStats.RootStats(root, counters[0].sum(), counters[1].sum())));
+            rootStats.sort(Comparator.comparing(MemoryStats.RootStats::getRoot));
+            resolverStats.add(new MemoryStats.ResolverStats(i, name, registered.classes.sum(), registered.bytes.sum(), rootStats));
+        }
+        TransformedClassStore store = classStore;
+        ResourceCache cache = resourceCache;
+        return new MemoryStats(//
+                defined,//
+                clazzCache.size(),//
+                definedBytes,//
+                lockMapSize,//
+                store != null ? store.size() : 0,//
+                store != null ? store.getRetainedBytes() : 0,//
+                cache != null ? cache.getWeight() : 0,//
+                resolverStats//
+        );
+    }
+
+    @Nullable
+    private static Field findParallelLockMap() {
+        try {
+            Field field = ClassLoader.class.getDeclaredField("parallelLockMap");
+            field.setAccessible(true);
+            return field;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    //Changes whenever the resolvers of this loader or any of its parents change.
+    private long getResolverGeneration() {
+        long generation = resolverGeneration.get();
+        return parentModular != null ? generation + parentModular.getResolverGeneration() : generation;
+    }
+
     /**
      * Called to refresh the internal logging implementation of ModularClassLoader.
      */
@@ -165,7 +600,17 @@ public final class ModularClassLoader extends ClassLoader {
      * @param resolver The resolver.
      */
     public void addResolver(IResourceResolver resolver) {
-        resolvers.add(resolver);
+        synchronized (registrationLock) {
+            RegisteredResolver[] resolvers = Arrays.copyOf(this.resolvers, this.resolvers.length + 1);
+            resolvers[resolvers.length - 1] = new RegisteredResolver(resolver);
+            hasSlowResolvers |= resolvers[resolvers.length - 1].slow;
+            hasDefinitionListeners |= resolvers[resolvers.length - 1].listener != null;
+            this.resolvers = resolvers;
+        }
+        resolverGeneration.incrementAndGet();
+        if (resolver instanceof IClassDefinitionListener) {
+            ((IClassDefinitionListener) resolver).registered(this);
+        }
     }
 
     /**
@@ -176,58 +621,213 @@ public final class ModularClassLoader extends ClassLoader {
      */
     public void addTransformer(IClassTransformer transformer) {
         logger.trace("Adding transformer. {}", transformer.getClass());
-        transformers.add(transformer);
+        synchronized (registrationLock) {
+            IClassTransformer[] transformers = Arrays.copyOf(this.transformers, this.transformers.length + 1);
+            transformers[transformers.length - 1] = transformer;
+            this.transformers = transformers;
+            transformerChain = chainCounter.getAndIncrement();
+            regenerateDispatcher();
+        }
+    }
+
+    /**
+     * Sets the executor used by {@link #loadClassAsync(String)}.
+     * Defaults to a pool of daemon threads, one per processor, shared by all ModularClassLoaders.
+     * Children created after this call share the executor.
+     *
+     * @param executor The executor, null to use the default.
+     */
+    public void setAsyncExecutor(@Nullable Executor executor) {
+        asyncExecutor = executor;
+    }
+
+    /**
+     * Enables concurrent lookups across resolvers marked as {@link IResourceResolver#isSlow() slow},
+     * using a bounded pool of daemon threads shared by all ModularClassLoaders. Its size defaults to 8,
+     * and can be changed via '-Dcovers1624.classloader.lookup_threads=&lt;count&gt;'.
+     * See {@link #enableConcurrentLookup(Executor)}.
+     */
+    public void enableConcurrentLookup() {
+        enableConcurrentLookup(LookupPool.EXECUTOR);
+    }
+
+    /**
+     * Enables concurrent lookups across resolvers marked as {@link IResourceResolver#isSlow() slow}.
+     * Each lookup queries all slow resolvers at once on the given executor, whilst the others are
+     * queried in order on the calling thread. The highest priority hit is returned as soon as all
+     * resolvers before it are known to miss, so results are identical to a sequential lookup.
+     * Children created after this call share the executor.
+     *
+     * @param executor The executor, should be bounded.
+     */
+    public void enableConcurrentLookup(Executor executor) {
+        lookupExecutor = executor;
+    }
+
+    /**
+     * Disables concurrent lookups, resolvers are queried one after another.
+     */
+    public void disableConcurrentLookup() {
+        lookupExecutor = null;
+    }
+
+    /**
+     * Loads a class asynchronously, resolving, transforming and defining it on the
+     * async executor. If a load of the same class is already in flight, its result is shared.
+     *
+     * @param name The class name.
+     * @return A future completed with the class, or exceptionally with the load's failure,
+     * for example a {@link ClassNotFoundException}.
+     */
+    public CompletableFuture<Class<?>> loadClassAsync(String name) {
+        Class<?> c = clazzCache.get(name);
+        if (c != null) {
+            return CompletableFuture.completedFuture(c);
+        }
+        CompletableFuture<Class<?>> future = asyncLoads.get(name);
+        if (future == null) {
+            CompletableFuture<Class<?>> newFuture = new CompletableFuture<>();
+            future = asyncLoads.putIfAbsent(name, newFuture);
+            if (future == null) {
+                future = newFuture;
+                try {
+                    getAsyncExecutor().execute(() -> {
+                        try {
+                            newFuture.complete(loadClass(name));
+                        } catch (Throwable t) {
+                            newFuture.completeExceptionally(t);
+                        } finally {
+                            asyncLoads.remove(name, newFuture);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    asyncLoads.remove(name, newFuture);
+                    newFuture.completeExceptionally(e);
+                }
+            }
+        }
+        //Callers get their own dependent future, so one cancelling can't affect the others.
+        return future.thenApply(e -> e);
+    }
+
+    /**
+     * Loads a batch of classes asynchronously, as per {@link #loadClassAsync(String)}.
+     *
+     * @param names The class names.
+     * @return A future completed with the classes in the order requested, or exceptionally
+     * with the first failure once all loads have finished.
+     */
+    public CompletableFuture<List<Class<?>>> loadClassesAsync(Collection<String> names) {
+        List<CompletableFuture<Class<?>>> futures = new ArrayList<>(names.size());
+        for (String name : names) {
+            futures.add(loadClassAsync(name));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            List<Class<?>> classes = new ArrayList<>(futures.size());
+            for (CompletableFuture<Class<?>> future : futures) {
+                classes.add(future.join());
+            }
+            return classes;
+        });
+    }
+
+    private Executor getAsyncExecutor() {
+        Executor executor = asyncExecutor;
+        return executor != null ? executor : AsyncPool.EXECUTOR;
     }
 
     //This allows us to share classes from our parent class loader.
     @Override
     protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
         logger.trace("Attempting Load: {}", name);
+        LoadProfiler profiler = this.profiler;
+        if (profiler != null) {
+            return profiledLoadClass(profiler, name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            return loadClassLocked(name, resolve);
+        }
+    }
+
+    private Class<?> profiledLoadClass(LoadProfiler profiler, String name, boolean resolve) throws ClassNotFoundException {
+        long start = System.nanoTime();
         synchronized (getClassLoadingLock(name)) {
-            //We have already loaded this class before, just return it.
-            Class<?> c = clazzCache.get(name);
+            long acquired = System.nanoTime();
+            try {
+                return loadClassLocked(name, resolve);
+            } finally {
+                //Nested loads have all been popped by now, so this is the chain that triggered us.
+                profiler.recordLoad(name, acquired - start, System.nanoTime() - acquired, classTransformingStack.get());
+            }
+        }
+    }
+
+    //Must be called whilst holding the class loading lock for the class.
+    private Class<?> loadClassLocked(String name, boolean resolve) throws ClassNotFoundException {
+        //We have already loaded this class before, just return it.
+        Class<?> c = clazzCache.get(name);
+        if (c != null) {
+            logger.trace(" Cache hit.");
+            return c;
+        }
+        //Check if native says its loaded.
+        c = findLoadedClass(name);
+        if (c == null) {
+            c = parentLookup.apply(parent, name);
             if (c != null) {
-                logger.trace(" Cache hit.");
+                logger.trace(" Parent cache hit.");
+                recordShared(c);
+                cacheClass(name, c);
                 return c;
             }
-            //Check if native says its loaded.
-            c = findLoadedClass(name);
-            if (c == null) {
-                c = parentLookup.apply(parent, name);
-                if (c != null) {
-                    logger.trace(" Parent cache hit.");
-                    clazzCache.put(name, c);
-                    return c;
-                }
+        }
+
+        boolean find = true;
+        if (c == null && layer != null) {
+            ModularClassLoader owner = layer.findLoader(name);
+            if (owner != null && owner != this) {
+                logger.trace(" Delegating to owning module.");
+                c = owner.loadClass(name);
+                cacheClass(name, c);
+                return c;
             }
+            //Packages outside all modules are straight to the parent.
+            find = owner == this;
+        }
 
-            if (c == null) {
-                if (loaderExclusions.stream().noneMatch(name::startsWith)) {
-                    try {
-                        //Find the bytes and transform.
-                        c = findClass(name);
-                        logger.trace(" Loaded.");
-                    } catch (ClassNotFoundException ignored) {
-                    }
-                } else {
-                    logger.trace(" excluded from this ClassLoader.");
+        if (c == null && find) {
+            if (loaderExclusions.stream().noneMatch(name::startsWith)) {
+                try {
+                    //Find the bytes and transform.
+                    c = findClass(name);
+                    logger.trace(" Loaded.");
+                } catch (ClassNotFoundException ignored) {
                 }
+            } else {
+                logger.trace(" excluded from this ClassLoader.");
             }
-            //Finally check if the parent knows where it is.
-            if (c == null && parent != null) {
-                //Called with false so we are the one to resolve it.
-                //This will also throw a CNFE if it cant be found, bonking out of the method.
-                c = parent.loadClass(name);
-                logger.trace(" Parent loaded.");
-            }
-            //we have found the class, resolve.
-            if (resolve) {
-                resolveClass(c);
-            }
-            //Add it to our cache lookup.
-            clazzCache.put(name, c);
-            return c;
         }
+        //Finally check if the parent knows where it is.
+        if (c == null && parent != null) {
+            //Called with false so we are the one to resolve it.
+            //This will also throw a CNFE if it cant be found, bonking out of the method.
+            c = parent.loadClass(name);
+            logger.trace(" Parent loaded.");
+            recordShared(c);
+        }
+        //we have found the class, resolve.
+        if (resolve) {
+            resolveClass(c);
+        }
+        //Add it to our cache lookup.
+        cacheClass(name, c);
+        return c;
+    }
+
+    //Keys the cache by the class's own name, so the cache doesn't retain a second copy of every name.
+    private void cacheClass(String name, Class<?> c) {
+        String className = c.getName();
+        clazzCache.put(className.equals(name) ? className : name, c);
     }
 
     @Override
@@ -244,9 +844,18 @@ public final class ModularClassLoader extends ClassLoader {
             loadingClasses.push(name);
             if (loadReentry && !transformerStack.get().isEmpty()) {
                 logger.trace(" ReEntry on existing class whilst transforming. Assuming loop. Aborted.");
+                if (JFR) {
+                    TransformAbortEvent event = new TransformAbortEvent();
+                    if (event.shouldCommit()) {
+                        event.className = name;
+                        event.transformer = transformerStack.get().peek().getClass().getName();
+                        event.depth = loadingClasses.size();
+                        event.commit();
+                    }
+                }
                 throw new AbortException();
             }
-            byte[] bytes = getClassBytes(name);
+            byte[] bytes = parentModular == null ? getClassBytes(name) : getOwnClassBytes(name);
 
             //Check again, perhaps it was loaded by one of the transformers whilst transforming.
             c = clazzCache.get(name);
@@ -278,14 +887,133 @@ public final class ModularClassLoader extends ClassLoader {
     protected URL findResource(String name) {
         URL url = null;
         try {
-            for (IResourceResolver resolver : resolvers) {
-                url = resolver.findResource(name);
+            if (layer != null) {
+                return findLayerResource(name);
+            }
+            url = findOwnResource(name);
+        } catch (IOException e) {
+            return null;
+        }
+        if (url == null && parentModular != null) {
+            url = parentModular.findResource(name);
+        }
+        return url;
+    }
+
+    //Module loaders route resources as they route classes, by the package of the resource.
+    @Nullable
+    private URL findLayerResource(String name) throws IOException {
+        ModularClassLoader owner = layer.findPackageLoader(resourcePackage(name));
+        if (owner != null) {
+            return owner.findOwnResource(name);
+        }
+        //Outside all modules, the parent's, then our own, for files such as 'META-INF/services/'.
+        URL url = parent != null ? parent.getResource(name) : ClassLoader.getSystemResource(name);
+        return url != null ? url : findOwnResource(name);
+    }
+
+    //The package a resource is in, E.G: 'java/lang/Object.class' is in 'java.lang'.
+    private static String resourcePackage(String name) {
+        int idx = name.lastIndexOf('/');
+        return idx == -1 ? "" : name.substring(0, idx).replace('/', '.');
+    }
+
+    //Finds a resource from this loaders resolvers only.
+    @Nullable
+    private URL findOwnResource(String name) throws IOException {
+        FoundResource found = findOwn(name);
+        return found != null ? found.url : null;
+    }
+
+    //As findOwnResource, also identifying the resolver which found it.
+    @Nullable
+    private FoundResource findOwn(String name) throws IOException {
+        RegisteredResolver[] resolvers = this.resolvers;
+        Executor lookupExecutor = this.lookupExecutor;
+        if (lookupExecutor != null && hasSlowResolvers) {
+            return findOwnConcurrent(resolvers, lookupExecutor, name);
+        }
+        for (int index = 0; index < resolvers.length; index++) {
+            RegisteredResolver registered = resolvers[index];
+            URL url = resolve(index, registered.resolver, name);
+            if (url != null) {
+                return new FoundResource(registered, url);
+            }
+        }
+        return null;
+    }
+
+    //As findOwn, except slow resolvers are all queried up front on the lookup executor.
+    //Results are still taken in resolver order, so the first hit is the same as a sequential lookup.
+    @Nullable
+    private FoundResource findOwnConcurrent(RegisteredResolver[] resolvers, Executor executor, String name) throws IOException {
+        CompletableFuture<?>[] pending = new CompletableFuture<?>[resolvers.length];
+        for (int index = 0; index < resolvers.length; index++) {
+            if (resolvers[index].slow) {
+                int i = index;
+                IResourceResolver resolver = resolvers[index].resolver;
+                pending[index] = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return resolve(i, resolver, name);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor);
+            }
+        }
+        try {
+            for (int index = 0; index < resolvers.length; index++) {
+                RegisteredResolver registered = resolvers[index];
+                URL url;
+                if (pending[index] != null) {
+                    try {
+                        url = (URL) pending[index].join();
+                    } catch (CompletionException e) {
+                        //Surface failures as the sequential path would.
+                        Throwable cause = e.getCause();
+                        if (cause instanceof IOException) {
+                            throw (IOException) cause;
+                        }
+                        if (cause instanceof RuntimeException) {
+                            throw (RuntimeException) cause;
+                        }
+                        if (cause instanceof Error) {
+                            throw (Error) cause;
+                        }
+                        throw e;
+                    }
+                } else {
+                    url = resolve(index, registered.resolver, name);
+                }
                 if (url != null) {
-                    break;
+                    return new FoundResource(registered, url);
                 }
             }
-        } catch (IOException e) {
             return null;
+        } finally {
+            //Lower priority lookups still queued are no longer needed.
+            for (CompletableFuture<?> future : pending) {
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private URL resolve(int index, IResourceResolver resolver, String name) throws IOException {
+        ResolveResourceEvent event = null;
+        if (JFR) {
+            event = new ResolveResourceEvent();
+            event.begin();
+        }
+        URL url = resolver.findResource(name);
+        if (event != null && event.shouldCommit()) {
+            event.resource = name;
+            event.resolver = resolver.getClass().getName();
+            event.resolverIndex = index;
+            event.found = url != null;
+            event.commit();
         }
         return url;
     }
@@ -298,9 +1026,22 @@ public final class ModularClassLoader extends ClassLoader {
     @Override
     @SuppressWarnings ("unchecked")
     protected Enumeration<URL> findResources(String name) throws IOException {
-        List<Enumeration<URL>> enums = new ArrayList<>();
-        for (IResourceResolver resolver : resolvers) {
-            enums.add(resolver.findResources(name));
+        RegisteredResolver[] resolvers = this.resolvers;
+        List<Enumeration<URL>> enums = new ArrayList<>(resolvers.length + 1);
+        if (layer != null) {
+            ModularClassLoader owner = layer.findPackageLoader(resourcePackage(name));
+            if (owner != null && owner != this) {
+                return owner.findResources(name);
+            }
+            if (owner == null) {
+                enums.add(parent != null ? parent.getResources(name) : ClassLoader.getSystemResources(name));
+            }
+        }
+        for (int i = 0; i < resolvers.length; i++) {
+            enums.add(resolvers[i].resolver.findResources(name));
+        }
+        if (parentModular != null) {
+            enums.add(parentModular.findResources(name));
         }
         return new CompoundEnumeration<>(enums.toArray(new Enumeration[0]));
     }
@@ -313,7 +1054,42 @@ public final class ModularClassLoader extends ClassLoader {
      * @return The bytes, null otherwise.
      */
     public byte[] getResourceAsBytes(String name) {
-        InputStream is = getResourceAsStream(name);
+        ResourceCache cache = resourceCache;
+        if (cache != null && !name.endsWith(".class")) {
+            byte[] bytes = getCachedResource(cache, name);
+            return bytes != null ? bytes.clone() : null;
+        }
+        return readResource(name);
+    }
+
+    @Nullable
+    @Override
+    public InputStream getResourceAsStream(String name) {
+        ResourceCache cache = resourceCache;
+        if (cache != null && !name.endsWith(".class")) {
+            byte[] bytes = getCachedResource(cache, name);
+            return bytes != null ? new ByteArrayInputStream(bytes) : null;
+        }
+        return super.getResourceAsStream(name);
+    }
+
+    //The returned array is shared with the cache.
+    @Nullable
+    private byte[] getCachedResource(ResourceCache cache, String name) {
+        long generation = getResolverGeneration();
+        byte[] bytes = cache.get(name, generation);
+        if (bytes == null) {
+            bytes = readResource(name);
+            if (bytes != null) {
+                cache.put(name, bytes, generation);
+            }
+        }
+        return bytes;
+    }
+
+    @Nullable
+    private byte[] readResource(String name) {
+        InputStream is = super.getResourceAsStream(name);
         if (is != null) {
             try (InputStream is_ = is) {
                 return Utils.toByteArray(is_);
@@ -332,17 +1108,80 @@ public final class ModularClassLoader extends ClassLoader {
      */
     @Nullable
     public byte[] getClassBytes(String name) {
+        if (parentModular == null) {
+            //Our resolvers are all there is, go direct so the resolver is accounted.
+            return getOwnClassBytes(name);
+        }
         byte[] bytes = definedClazzBytes.get(name);
         if (bytes != null) {
             return bytes;
         }
         String asmName = name.replace(".", "/");
         String resource = asmName + ".class";
+        LoadProfiler profiler = this.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
         bytes = getResourceAsBytes(resource);
+        if (profiler != null) {
+            profiler.record(Stage.RESOLVE, System.nanoTime() - start);
+        }
+        return transformClassBytes(name, asmName, bytes);
+    }
+
+    //Same as getClassBytes, except only this loaders resolvers are used to find the class.
+    @Nullable
+    private byte[] getOwnClassBytes(String name) {
+        byte[] bytes = definedClazzBytes.get(name);
+        if (bytes != null) {
+            return bytes;
+        }
+        String asmName = name.replace(".", "/");
+        LoadProfiler profiler = this.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
+        try {
+            FoundResource found = findOwn(asmName + ".class");
+            if (found != null) {
+                try (InputStream is = found.url.openStream()) {
+                    bytes = Utils.toByteArray(is);
+                }
+                found.resolver.record(rootOf(found.url, asmName + ".class"), bytes.length);
+            }
+        } catch (IOException e) {
+            bytes = null;
+        } finally {
+            if (profiler != null) {
+                profiler.record(Stage.RESOLVE, System.nanoTime() - start);
+            }
+        }
+        //Transformers are still run on a miss, they may provide the class.
+        return transformClassBytes(name, asmName, bytes);
+    }
+
+    @Nullable
+    private byte[] transformClassBytes(String name, String asmName, @Nullable byte[] bytes) {
+        //Only children share transformed bytes, see createChild.
+        TransformedClassStore store = parentModular != null ? classStore : null;
+        TransformedClassStore.Key key = null;
+        if (store != null && bytes != null) {
+            key = store.key(name, transformerChain, bytes);
+            byte[] stored = store.get(key);
+            if (stored != null) {
+                logger.trace("  Transformed bytes store hit.");
+                return stored;
+            }
+        }
+        LoadProfiler profiler = this.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
         try {
             bytes = transform(name, bytes);
+            if (key != null && bytes != null) {
+                store.put(key, bytes);
+            }
         } catch (AbortException ignored) {
             logger.trace("  Caught abort, registering un transformed class.");
+        } finally {
+            if (profiler != null) {
+                profiler.record(Stage.TRANSFORM, System.nanoTime() - start);
+            }
         }
 
         if (DEBUG && DUMP) {
@@ -365,12 +1204,32 @@ public final class ModularClassLoader extends ClassLoader {
     @Nullable
     private byte[] transform(String name, @Nullable byte[] bytes) {
         Deque<IClassTransformer> activeTransformers = transformerStack.get();
-        for (IClassTransformer transformer : transformers) {
+        TransformerDispatcher dispatcher = this.dispatcher;
+        //Per transformer JFR events are only emitted by the generic loop.
+        if (dispatcher != null && !(JFR && TransformClassEvent.isTypeEnabled())) {
+            return dispatcher.transform(name, bytes, activeTransformers);
+        }
+        IClassTransformer[] transformers = this.transformers;
+        for (int i = 0; i < transformers.length; i++) {
+            IClassTransformer transformer = transformers[i];
             //if (!activeTransformers.contains(transformer)) {
             //Make sure transformers always pop from the list.
+            TransformClassEvent event = null;
+            if (JFR) {
+                event = new TransformClassEvent();
+                event.begin();
+            }
+            int inputSize = bytes != null ? bytes.length : 0;
             try {
                 activeTransformers.push(transformer);
                 bytes = transformer.transform(name, bytes);
+                if (event != null && event.shouldCommit()) {
+                    event.className = name;
+                    event.transformer = transformer.getClass().getName();
+                    event.inputSize = inputSize;
+                    event.outputSize = bytes != null ? bytes.length : 0;
+                    event.commit();
+                }
             } finally {
                 activeTransformers.pop();
             }
@@ -405,11 +1264,139 @@ public final class ModularClassLoader extends ClassLoader {
 
     }
 
+    /**
+     * Gets the class hierarchy lookup for this loader, which answers super class and
+     * interface queries by parsing class headers from the resolvers, never loading,
+     * defining or transforming a class. Transformers should use this instead of loading
+     * classes to inspect them, notably when computing frames with ASM.
+     * Cached headers are dropped whenever the resolvers change. Classes defined by this
+     * loader whose resource is no longer provided, such as those released by an
+     * {@link net.covers1624.classloader.resolvers.InMemoryResolver}, are read from their
+     * defined, transformed, bytes instead.
+     *
+     * @return The ClassHierarchy.
+     */
+    public ClassHierarchy getClassHierarchy() {
+        ClassHierarchy hierarchy = this.hierarchy;
+        if (hierarchy == null) {
+            synchronized (this) {
+                hierarchy = this.hierarchy;
+                if (hierarchy == null) {
+                    this.hierarchy = hierarchy = new ClassHierarchy(new ClassHierarchy.Source() {
+                        @Override
+                        public byte[] getClassBytes(String name) throws IOException {
+                            return getUntransformedBytes(name);
+                        }
+
+                        @Override
+                        public long getGeneration() {
+                            return getResolverGeneration();
+                        }
+                    });
+                }
+            }
+        }
+        return hierarchy;
+    }
+
+    //The bytes of a class as provided by the resolvers, or any parent.
+    @Nullable
+    private byte[] getUntransformedBytes(String name) throws IOException {
+        String resource = name.replace('.', '/') + ".class";
+        URL url = findResource(resource);
+        if (url == null) {
+            //The resolver may have released the bytes once the class was defined.
+            byte[] defined = definedClazzBytes.get(name);
+            if (defined != null) {
+                return defined;
+            }
+        }
+        if (url == null) {
+            url = parent != null ? parent.getResource(resource) : ClassLoader.getSystemResource(resource);
+        }
+        if (url == null) {
+            return null;
+        }
+        try (InputStream is = url.openStream()) {
+            return Utils.toByteArray(is);
+        }
+    }
+
+    /**
+     * Scans all classes visible through this loaders resolvers, without loading them.
+     * Resolvers are scanned through their {@link IResourceResolver#getRoots() roots}, or failing
+     * that the resources they {@link IResourceResolver#getResourceNames() list}. Resolvers
+     * providing neither are skipped, see {@link ClassIndex#getUnscanned()}.
+     * Results for each root are cached in memory against a fingerprint of the root.
+     *
+     * @return The index.
+     * @throws IOException If a root could not be read.
+     */
+    public ClassIndex scanClasses() throws IOException {
+        ClassScanner scanner;
+        synchronized (this) {
+            if (this.scanner == null) {
+                this.scanner = new ClassScanner();
+            }
+            scanner = this.scanner;
+        }
+        return scanner.scanResolvers(getScanResolvers());
+    }
+
+    /**
+     * Same as {@link #scanClasses()}, except results are also persisted to and
+     * read from the provided cache directory.
+     *
+     * @param cacheDir The cache directory.
+     * @return The index.
+     * @throws IOException If a root could not be read.
+     */
+    public ClassIndex scanClasses(File cacheDir) throws IOException {
+        return new ClassScanner(cacheDir, Runtime.getRuntime().availableProcessors()).scanResolvers(getScanResolvers());
+    }
+
+    //All resolvers, including any parents, in lookup order.
+    private List<IResourceResolver> getScanResolvers() {
+        List<IResourceResolver> list = new ArrayList<>();
+        RegisteredResolver[] resolvers = this.resolvers;
+        for (int i = 0; i < resolvers.length; i++) {
+            list.add(resolvers[i].resolver);
+        }
+        if (parentModular != null) {
+            list.addAll(parentModular.getScanResolvers());
+        }
+        return list;
+    }
+
     //Defines a class and caches it.
     private Class<?> defineClass(String name, byte[] bytes) {
+        DefineClassEvent event = null;
+        if (JFR) {
+            event = new DefineClassEvent();
+            event.begin();
+        }
+        LoadProfiler profiler = this.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
         Class<?> clazz = defineClass(name, bytes, 0, bytes.length);
-        definedClazzBytes.put(name, bytes);
-        clazzCache.put(name, clazz);
+        if (profiler != null) {
+            profiler.record(Stage.DEFINE, System.nanoTime() - start);
+        }
+        if (event != null && event.shouldCommit()) {
+            event.className = name;
+            event.size = bytes.length;
+            event.commit();
+        }
+        String className = clazz.getName();
+        definedClazzBytes.put(className, bytes);
+        clazzCache.put(className, clazz);
+        if (hasDefinitionListeners) {
+            RegisteredResolver[] resolvers = this.resolvers;
+            for (int i = 0; i < resolvers.length; i++) {
+                if (resolvers[i].listener != null) {
+                    resolvers[i].listener.classDefined(this, className);
+                }
+            }
+        }
         return clazz;
     }
 
@@ -422,4 +1409,92 @@ public final class ModularClassLoader extends ClassLoader {
 
     }
 
+    private static class FoundResource {
+
+        private final RegisteredResolver resolver;
+        private final URL url;
+
+        private FoundResource(RegisteredResolver resolver, URL url) {
+            this.resolver = resolver;
+            this.url = url;
+        }
+    }
+
+    //A resolver, and the classes read from it.
+    private static class RegisteredResolver {
+
+        private final IResourceResolver resolver;
+        private final boolean slow;
+        @Nullable
+        private final IClassDefinitionListener listener;
+        private final LongAdder classes = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        //Per root, jar or directory, counters, for resolvers over several roots.
+        private final Map<String, LongAdder[]> roots = new ConcurrentHashMap<>();
+
+        private RegisteredResolver(IResourceResolver resolver) {
+            this.resolver = resolver;
+            slow = resolver.isSlow();
+            listener = resolver instanceof IClassDefinitionListener ? (IClassDefinitionListener) resolver : null;
+        }
+
+        private void record(String root, int length) {
+            classes.increment();
+            bytes.add(length);
+            LongAdder[] counters = roots.computeIfAbsent(root, e -> new LongAdder[] { new LongAdder(), new LongAdder() });
+            counters[0].increment();
+            counters[1].add(length);
+        }
+    }
+
+    //The root a resource was found in, its URL without the resource name, or any 'jar:' wrapping.
+    //E.G: 'jar:file:/a.jar!/b/C.class' is in 'file:/a.jar', and 'file:/dir/b/C.class' in 'file:/dir/'.
+    private static String rootOf(URL url, String resource) {
+        String str = url.toString();
+        if (str.endsWith(resource)) {
+            str = str.substring(0, str.length() - resource.length());
+        }
+        if (str.endsWith("!/")) {
+            str = str.substring(0, str.length() - 2);
+            if (str.startsWith("jar:")) {
+                str = str.substring(4);
+            }
+        }
+        return str;
+    }
+
+    //Lazily creates the default loadClassAsync executor.
+    private static class AsyncPool {
+
+        private static final AtomicInteger threadCounter = new AtomicInteger();
+        private static final Executor EXECUTOR = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread thread = new Thread(r, "ModularClassLoader Async #" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    //Lazily creates the default concurrent lookup executor.
+    private static class LookupPool {
+
+        private static final AtomicInteger threadCounter = new AtomicInteger();
+        private static final Executor EXECUTOR = Executors.newFixedThreadPool(Math.max(1, Integer.getInteger("covers1624.classloader.lookup_threads", 8)), r -> {
+            Thread thread = new Thread(r, "ModularClassLoader Lookup #" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    //Defines generated dispatchers, a new one each time so old ones can be unloaded.
+    private static class DispatcherClassLoader extends ClassLoader {
+
+        public DispatcherClassLoader() {
+            super(ModularClassLoader.class.getClassLoader());
+        }
+
+        public Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
 }
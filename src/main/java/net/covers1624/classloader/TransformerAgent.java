@@ -0,0 +1,119 @@
+package net.covers1624.classloader;
+
+import net.covers1624.classloader.api.IClassTransformer;
+import net.covers1624.classloader.api.Sort;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.Instrumentation;
+import java.security.ProtectionDomain;
+import java.util.*;
+
+/**
+ * A Java agent, which runs IClassTransformers directly on the application ClassLoader,
+ * without routing classes through a {@link ModularClassLoader}.
+ *
+ * Transformers are discovered the same way as {@link LaunchBouncer} does, as services
+ * visible to the system ClassLoader, sorted by {@link Sort}, then adapted into a single
+ * ClassFileTransformer. Classes keep being defined by the ClassLoader that would normally
+ * define them, so there is no second class cache, and class data sharing is unaffected.
+ *
+ * Use via '-javaagent:ModularClassLoader.jar', or attach at runtime. When attached at runtime,
+ * classes already loaded are not transformed. By default only classes defined by the system
+ * ClassLoader are transformed, pass 'all' as the agent argument to transform classes of every
+ * ClassLoader other than the bootstrap ClassLoader.
+ *
+ * As with ModularClassLoader, 'java.', 'sun.' and 'javax.' classes are never transformed,
+ * and a transformer is never called for classes loaded by itself whilst transforming.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class TransformerAgent {
+
+    private static final List<String> exclusions = Collections.unmodifiableList(Arrays.asList(//
+            "java/",//
+            "sun/",//
+            "javax/",//
+            "net/covers1624/classloader/"//
+    ));
+
+    @Nullable
+    private static Instrumentation instrumentation;
+
+    public static void premain(String args, Instrumentation inst) throws Throwable {
+        install(args, inst);
+    }
+
+    public static void agentmain(String args, Instrumentation inst) throws Throwable {
+        install(args, inst);
+    }
+
+    /**
+     * @return The Instrumentation the agent was installed with, null if not installed.
+     */
+    @Nullable
+    public static Instrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    private static synchronized void install(@Nullable String args, Instrumentation inst) throws Throwable {
+        if (instrumentation != null) {
+            return;
+        }
+        instrumentation = inst;
+        ClassLoader target = "all".equals(args) ? null : ClassLoader.getSystemClassLoader();
+        List<IClassTransformer> transformers = LaunchBouncer.loadTransformers(ClassLoader.getSystemClassLoader());
+        if (!transformers.isEmpty()) {
+            inst.addTransformer(adapt(transformers, target));
+        }
+    }
+
+    /**
+     * Adapts a list of IClassTransformers into a ClassFileTransformer.
+     * The transformers are run in list order, as they would be by a ModularClassLoader.
+     *
+     * @param transformers The transformers.
+     * @param target       The ClassLoader whose classes are transformed,
+     *                     null for any ClassLoader other than the bootstrap ClassLoader.
+     * @return The ClassFileTransformer.
+     */
+    public static ClassFileTransformer adapt(List<IClassTransformer> transformers, @Nullable ClassLoader target) {
+        IClassTransformer[] chain = transformers.toArray(new IClassTransformer[0]);
+        ThreadLocal<Deque<IClassTransformer>> activeTransformers = ThreadLocal.withInitial(ArrayDeque::new);
+        return new ClassFileTransformer() {
+            @Override
+            public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined, ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+                //Redefinitions are left alone, the class was transformed when first defined.
+                if (loader == null || (target != null && loader != target) || className == null || classBeingRedefined != null) {
+                    return null;
+                }
+                for (String exclusion : exclusions) {
+                    if (className.startsWith(exclusion)) {
+                        return null;
+                    }
+                }
+                String name = className.replace('/', '.');
+                Deque<IClassTransformer> active = activeTransformers.get();
+                byte[] bytes = classfileBuffer;
+                for (IClassTransformer transformer : chain) {
+                    if (active.contains(transformer)) {
+                        continue;
+                    }
+                    active.push(transformer);
+                    try {
+                        bytes = transformer.transform(name, bytes);
+                    } catch (Throwable t) {
+                        //The JVM silently discards exceptions, make sure they are seen.
+                        System.err.println("Transformer " + transformer.getClass().getName() + " failed to transform " + name);
+                        t.printStackTrace();
+                        return null;
+                    } finally {
+                        active.pop();
+                    }
+                }
+                //Null means unchanged to the JVM.
+                return bytes != classfileBuffer ? bytes : null;
+            }
+        };
+    }
+}
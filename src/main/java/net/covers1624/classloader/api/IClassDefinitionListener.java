@@ -0,0 +1,30 @@
+package net.covers1624.classloader.api;
+
+import net.covers1624.classloader.ModularClassLoader;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Implemented by an {@link IResourceResolver} to be notified when a
+ * ModularClassLoader it is registered to defines a class.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public interface IClassDefinitionListener {
+
+    /**
+     * Called once the resolver has been registered to a ModularClassLoader.
+     *
+     * @param loader The ModularClassLoader.
+     */
+    default void registered(@NotNull ModularClassLoader loader) {
+    }
+
+    /**
+     * Called once a class has been defined.
+     * The class may have been provided by a different resolver.
+     *
+     * @param loader The ModularClassLoader which defined the class.
+     * @param name   The classes name. Example: 'java.lang.String'
+     */
+    void classDefined(@NotNull ModularClassLoader loader, @NotNull String name);
+}
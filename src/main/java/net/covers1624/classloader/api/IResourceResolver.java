@@ -2,13 +2,15 @@ package net.covers1624.classloader.api;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import sun.misc.URLClassPath;
 
+import java.io.File;
 import java.io.IOException;
+import java.net.MalformedURLException;
 import java.net.URL;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Enumeration;
+import java.net.URLClassLoader;
+import java.util.*;
 
 /**
  * Created by covers1624 on 30/10/2017.
@@ -45,6 +47,79 @@ public interface IResourceResolver {
      */
     Enumeration<URL> findResources(String name) throws IOException;
 
+    /**
+     * Returns the classpath roots (jars or directories) this resolver provides resources from.
+     * Used for scanning classes without loading them, resolvers that can't represent themselves
+     * as roots should return an empty collection, the default.
+     *
+     * @return The roots.
+     */
+    default Collection<URL> getRoots() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Returns the names of all resources this resolver provides, E.G: 'java/lang/Object.class'.
+     * Used for scanning classes without loading them, by resolvers which can't represent
+     * themselves as {@link #getRoots() roots}, such as those serving from memory.
+     * Resolvers which can't list their resources should return null, the default.
+     *
+     * @return The resource names, or null.
+     */
+    @Nullable
+    default Collection<String> getResourceNames() {
+        return null;
+    }
+
+    /**
+     * Marks this resolver as backed by slow storage, such as a network filesystem.
+     * Slow resolvers are queried concurrently when a ModularClassLoader has concurrent lookups
+     * enabled, see {@link net.covers1624.classloader.ModularClassLoader#enableConcurrentLookup()}.
+     * Slow resolvers must be thread safe.
+     *
+     * @return If this resolver is slow, default false.
+     */
+    default boolean isSlow() {
+        return false;
+    }
+
+    /**
+     * Wraps an IResourceResolver, marking it as {@link #isSlow() slow}.
+     *
+     * @param resolver The resolver.
+     * @return The slow IResourceResolver.
+     */
+    @NotNull
+    @Contract (value = "_ -> new", pure = true)
+    static IResourceResolver slow(IResourceResolver resolver) {
+        return new IResourceResolver() {
+            @Override
+            public URL findResource(String name) throws IOException {
+                return resolver.findResource(name);
+            }
+
+            @Override
+            public Enumeration<URL> findResources(String name) throws IOException {
+                return resolver.findResources(name);
+            }
+
+            @Override
+            public Collection<URL> getRoots() {
+                return resolver.getRoots();
+            }
+
+            @Override
+            public Collection<String> getResourceNames() {
+                return resolver.getResourceNames();
+            }
+
+            @Override
+            public boolean isSlow() {
+                return true;
+            }
+        };
+    }
+
     /**
      * Creates an IResourceResolver from a ClassLoader.
      *
@@ -64,6 +139,26 @@ public interface IResourceResolver {
             public Enumeration<URL> findResources(String name) throws IOException {
                 return cl.getResources(name);
             }
+
+            @Override
+            public Collection<URL> getRoots() {
+                if (cl instanceof URLClassLoader) {
+                    return Arrays.asList(((URLClassLoader) cl).getURLs());
+                }
+                if (cl == ClassLoader.getSystemClassLoader()) {
+                    List<URL> roots = new ArrayList<>();
+                    for (String path : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+                        try {
+                            if (!path.isEmpty()) {
+                                roots.add(new File(path).toURI().toURL());
+                            }
+                        } catch (MalformedURLException ignored) {
+                        }
+                    }
+                    return roots;
+                }
+                return Collections.emptyList();
+            }
         };
     }
 
@@ -78,6 +173,7 @@ public interface IResourceResolver {
     @Contract (value = "_ -> new", pure = true)
     static IResourceResolver fromURLs(Collection<URL> urls) {
         URLClassPath ucp = new URLClassPath(urls.toArray(new URL[0]));
+        List<URL> roots = Collections.unmodifiableList(new ArrayList<>(urls));
         return new IResourceResolver() {
             @Override
             public URL findResource(String name) throws IOException {
@@ -89,6 +185,11 @@ public interface IResourceResolver {
             public Enumeration<URL> findResources(String name) throws IOException {
                 return ucp.findResources(name, true);
             }
+
+            @Override
+            public Collection<URL> getRoots() {
+                return roots;
+            }
         };
     }
 }
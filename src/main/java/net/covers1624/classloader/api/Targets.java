@@ -0,0 +1,34 @@
+package net.covers1624.classloader.api;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Annotate your IClassTransformer with this to declare the classes it
+ * applies to during dynamic registration.
+ *
+ * A transformer with Targets is not instantiated until the first class
+ * it targets is loaded, any other classes skip it entirely. Its place in
+ * the transformer order, from {@link Sort}, is unaffected. Under contention
+ * the transformer may be instantiated more than once, only one is kept.
+ * Classes loaded by the transformer's constructor are not passed to it.
+ *
+ * Created by agent on 19/10/2026.
+ */
+@Target (TYPE)
+@Retention (RUNTIME)
+public @interface Targets {
+
+    /**
+     * @return Exact class names. Example: 'java.lang.String'
+     */
+    String[] classes() default {};
+
+    /**
+     * @return Packages, including their sub packages. Example: 'java.lang'
+     */
+    String[] packages() default {};
+}
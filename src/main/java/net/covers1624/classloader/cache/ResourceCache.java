@@ -0,0 +1,171 @@
+package net.covers1624.classloader.cache;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A size bounded, least recently used cache of resource contents.
+ *
+ * Entries are weighed by their size in bytes, once the total weight exceeds the limit
+ * the least recently used entries are evicted. Resources larger than the per entry
+ * limit are never cached, so a single large file can't flush everything else.
+ *
+ * The cache is tagged with a generation, supplied by its owner, any lookup with a
+ * different generation clears the cache first. ModularClassLoader uses this to drop
+ * the cache whenever its resolvers change.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class ResourceCache {
+
+    private final long maxWeight;
+    private final int maxEntryWeight;
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75F, true);
+    private long weight;
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * @param maxWeight      The maximum total size of cached resources, in bytes.
+     * @param maxEntryWeight The maximum size of a single cached resource, in bytes.
+     */
+    public ResourceCache(long maxWeight, int maxEntryWeight) {
+        if (maxWeight < 0 || maxEntryWeight < 0) {
+            throw new IllegalArgumentException("Weights must not be negative.");
+        }
+        this.maxWeight = maxWeight;
+        this.maxEntryWeight = maxEntryWeight;
+    }
+
+    /**
+     * Gets the cached contents of a resource.
+     * The returned array is shared and must not be modified.
+     *
+     * @param name       The resource name.
+     * @param generation The owner's current generation.
+     * @return The contents, null if not cached.
+     */
+    @Nullable
+    public byte[] get(String name, long generation) {
+        byte[] bytes;
+        synchronized (this) {
+            checkGeneration(generation);
+            bytes = entries.get(name);
+        }
+        (bytes != null ? hits : misses).incrementAndGet();
+        return bytes;
+    }
+
+    /**
+     * Caches the contents of a resource, if it is within the per entry limit.
+     *
+     * @param name       The resource name.
+     * @param bytes      The contents, must not be modified afterwards.
+     * @param generation The generation the contents were read under.
+     */
+    public void put(String name, byte[] bytes, long generation) {
+        if (bytes.length > maxEntryWeight || bytes.length > maxWeight) {
+            return;
+        }
+        synchronized (this) {
+            checkGeneration(generation);
+            if (generation != this.generation) {
+                return;
+            }
+            byte[] old = entries.put(name, bytes);
+            if (old != null) {
+                weight -= old.length;
+            }
+            weight += bytes.length;
+            for (Iterator<byte[]> it = entries.values().iterator(); weight > maxWeight && it.hasNext(); ) {
+                weight -= it.next().length;
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void invalidate() {
+        entries.clear();
+        weight = 0;
+        invalidations.incrementAndGet();
+    }
+
+    //Must hold the lock. Only moves forwards, so a stale put can't clear newer entries.
+    private void checkGeneration(long generation) {
+        if (generation > this.generation) {
+            this.generation = generation;
+            if (!entries.isEmpty()) {
+                invalidate();
+            }
+        }
+    }
+
+    /**
+     * @return The maximum total size of cached resources, in bytes.
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @return The maximum size of a single cached resource, in bytes.
+     */
+    public int getMaxEntryWeight() {
+        return maxEntryWeight;
+    }
+
+    /**
+     * @return The current total size of cached resources, in bytes.
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return The number of cached resources.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    /**
+     * @return The fraction of lookups served from the cache.
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResourceCache[entries=%d, weight=%d/%d, hits=%d, misses=%d, evictions=%d, invalidations=%d]", size(), getWeight(), maxWeight, getHits(), getMisses(), getEvictions(), getInvalidations());
+    }
+}
@@ -0,0 +1,333 @@
+package net.covers1624.classloader.internal;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A compact concurrent Map from class names to values, used in place of
+ * ConcurrentHashMap for the per class caches of ModularClassLoader.
+ *
+ * Entries are stored inline in open addressed, linearly probed arrays alongside
+ * their precomputed hash, there are no per entry node objects. Reads are lock free,
+ * writes are serialized and grow the table by publishing a new copy, so readers
+ * always probe a consistent snapshot. Removed entries leave a tombstone, which
+ * probes skip over, tombstones are only dropped when the table is rebuilt.
+ * Views iterate the live table without copying it, weakly consistent, as with
+ * ConcurrentHashMap. Null keys and values are not supported.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class ClassTable<V> extends AbstractMap<String, V> {
+
+    private static final int MIN_CAPACITY = 16;
+    //Left in place of removed keys, never equal to a key, so probes continue past it.
+    private static final Object TOMBSTONE = new Object();
+
+    private volatile Table table;
+    private volatile int size;
+    //Live entries plus tombstones.
+    private int used;
+
+    private Set<String> keySet;
+    private Collection<V> values;
+    private Set<Entry<String, V>> entrySet;
+
+    public ClassTable() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expected The number of entries expected, to presize the table.
+     */
+    public ClassTable(int expected) {
+        table = new Table(capacityFor(expected));
+    }
+
+    @Override
+    @SuppressWarnings ("unchecked")
+    public V get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        int hash = spread(key.hashCode());
+        Table table = this.table;
+        int mask = table.hashes.length - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            //The key is written last, once visible so are its hash and value.
+            Object k = table.keys.get(i);
+            if (k == null) {
+                return null;
+            }
+            if (table.hashes[i] == hash && (k == key || k.equals(key))) {
+                //Null if removed since the key was read.
+                return (V) table.values.get(i);
+            }
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings ("unchecked")
+    public synchronized V put(String key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        int hash = spread(key.hashCode());
+        Table table = this.table;
+        int mask = table.hashes.length - 1;
+        int i = hash & mask;
+        for (Object k; (k = table.keys.get(i)) != null; i = (i + 1) & mask) {
+            if (table.hashes[i] == hash && k.equals(key)) {
+                return (V) table.values.getAndSet(i, value);
+            }
+        }
+        //Tombstones aren't reused, a reader may still be between reading a removed key and its value.
+        if (used + 1 > threshold(table.hashes.length)) {
+            //Only grow if the live entries need it, otherwise just drop the tombstones.
+            int capacity = size + 1 > threshold(table.hashes.length >>> 1) ? table.hashes.length << 1 : table.hashes.length;
+            this.table = table = table.rebuild(capacity);
+            used = size;
+            mask = table.hashes.length - 1;
+            i = hash & mask;
+            while (table.keys.get(i) != null) {
+                i = (i + 1) & mask;
+            }
+        }
+        table.insert(i, hash, key, value);
+        size++;
+        used++;
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings ("unchecked")
+    public synchronized V remove(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        int hash = spread(key.hashCode());
+        Table table = this.table;
+        int mask = table.hashes.length - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            Object k = table.keys.get(i);
+            if (k == null) {
+                return null;
+            }
+            if (table.hashes[i] == hash && k.equals(key)) {
+                table.keys.set(i, TOMBSTONE);
+                size--;
+                return (V) table.values.getAndSet(i, null);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        table = new Table(MIN_CAPACITY);
+        size = 0;
+        used = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of slots in the table.
+     */
+    public int capacity() {
+        return table.hashes.length;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        Set<String> keySet = this.keySet;
+        if (keySet == null) {
+            this.keySet = keySet = new AbstractSet<String>() {
+                @Override
+                public Iterator<String> iterator() {
+                    return new TableIterator<String>() {
+                        @Override
+                        protected String element(String key, V value) {
+                            return key;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return containsKey(o);
+                }
+            };
+        }
+        return keySet;
+    }
+
+    @Override
+    public Collection<V> values() {
+        Collection<V> values = this.values;
+        if (values == null) {
+            this.values = values = new AbstractCollection<V>() {
+                @Override
+                public Iterator<V> iterator() {
+                    return new TableIterator<V>() {
+                        @Override
+                        protected V element(String key, V value) {
+                            return value;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return values;
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        Set<Entry<String, V>> entrySet = this.entrySet;
+        if (entrySet == null) {
+            this.entrySet = entrySet = new AbstractSet<Entry<String, V>>() {
+                @Override
+                public Iterator<Entry<String, V>> iterator() {
+                    return new TableIterator<Entry<String, V>>() {
+                        @Override
+                        protected Entry<String, V> element(String key, V value) {
+                            return new SimpleImmutableEntry<>(key, value);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static int threshold(int capacity) {
+        return capacity - (capacity >>> 2);
+    }
+
+    private static int capacityFor(int expected) {
+        int capacity = MIN_CAPACITY;
+        while (threshold(capacity) < expected) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    //Walks the table snapshot taken when created, skipping empty slots and tombstones.
+    private abstract class TableIterator<T> implements Iterator<T> {
+
+        private final Table table = ClassTable.this.table;
+        private int index = -1;
+        private String nextKey;
+        private V nextValue;
+        private String lastKey;
+
+        private TableIterator() {
+            advance();
+        }
+
+        protected abstract T element(String key, V value);
+
+        @SuppressWarnings ("unchecked")
+        private void advance() {
+            nextKey = null;
+            while (++index < table.hashes.length) {
+                Object k = table.keys.get(index);
+                if (k != null && k != TOMBSTONE) {
+                    V v = (V) table.values.get(index);
+                    if (v != null) {
+                        nextKey = (String) k;
+                        nextValue = v;
+                        return;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextKey != null;
+        }
+
+        @Override
+        public T next() {
+            if (nextKey == null) {
+                throw new NoSuchElementException();
+            }
+            T element = element(nextKey, nextValue);
+            lastKey = nextKey;
+            advance();
+            return element;
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            ClassTable.this.remove(lastKey);
+            lastKey = null;
+        }
+    }
+
+    private static class Table {
+
+        private final int[] hashes;
+        private final AtomicReferenceArray<Object> keys;
+        private final AtomicReferenceArray<Object> values;
+
+        private Table(int capacity) {
+            hashes = new int[capacity];
+            keys = new AtomicReferenceArray<>(capacity);
+            values = new AtomicReferenceArray<>(capacity);
+        }
+
+        //The key must be written last, it publishes the slot to readers.
+        private void insert(int i, int hash, Object key, Object value) {
+            hashes[i] = hash;
+            values.set(i, value);
+            keys.set(i, key);
+        }
+
+        //Only called whilst holding the write lock, the new table is published after it is filled.
+        private Table rebuild(int capacity) {
+            Table table = new Table(capacity);
+            int mask = capacity - 1;
+            for (int j = 0; j < hashes.length; j++) {
+                Object k = keys.get(j);
+                if (k != null && k != TOMBSTONE) {
+                    int i = hashes[j] & mask;
+                    while (table.keys.get(i) != null) {
+                        i = (i + 1) & mask;
+                    }
+                    table.insert(i, hashes[j], k, values.get(j));
+                }
+            }
+            return table;
+        }
+    }
+}
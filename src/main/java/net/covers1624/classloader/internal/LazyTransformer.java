@@ -0,0 +1,97 @@
+package net.covers1624.classloader.internal;
+
+import net.covers1624.classloader.api.IClassTransformer;
+import net.covers1624.classloader.api.Targets;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stands in for an IClassTransformer annotated with {@link Targets},
+ * instantiating it when the first class it targets is transformed.
+ * Classes it doesn't target are returned untouched.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class LazyTransformer implements IClassTransformer {
+
+    private final Class<? extends IClassTransformer> clazz;
+    private final Set<String> classes;
+    private final String[] packages;
+    private final AtomicReference<IClassTransformer> transformer = new AtomicReference<>();
+    //Set whilst this thread is running the transformer's constructor.
+    private final ThreadLocal<Boolean> constructing = ThreadLocal.withInitial(() -> false);
+
+    public LazyTransformer(Class<? extends IClassTransformer> clazz, Targets targets) {
+        this.clazz = clazz;
+        classes = new HashSet<>(Arrays.asList(targets.classes()));
+        packages = new String[targets.packages().length];
+        for (int i = 0; i < packages.length; i++) {
+            packages[i] = targets.packages()[i] + ".";
+        }
+    }
+
+    @Nullable
+    @Override
+    public byte[] transform(@NotNull String name, @Nullable byte[] bytes) {
+        if (!matches(name)) {
+            return bytes;
+        }
+        IClassTransformer transformer = this.transformer.get();
+        if (transformer == null) {
+            //Classes loaded by the constructor are not passed to the transformer.
+            if (constructing.get()) {
+                return bytes;
+            }
+            //Not under a lock, the constructor may load classes which another thread is
+            //holding whilst waiting on us. Losing a race just discards an instance.
+            constructing.set(true);
+            try {
+                transformer = clazz.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException("Failed to instantiate transformer " + clazz.getName(), e);
+            } finally {
+                constructing.set(false);
+            }
+            if (!this.transformer.compareAndSet(null, transformer)) {
+                transformer = this.transformer.get();
+            }
+        }
+        return transformer.transform(name, bytes);
+    }
+
+    /**
+     * @param name The class.
+     * @return If the class is targeted.
+     */
+    public boolean matches(String name) {
+        if (classes.contains(name)) {
+            return true;
+        }
+        for (String pkg : packages) {
+            if (name.startsWith(pkg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The transformer, null if not yet instantiated.
+     */
+    @Nullable
+    public IClassTransformer getTransformer() {
+        return transformer.get();
+    }
+
+    /**
+     * @return The transformer class.
+     */
+    public Class<? extends IClassTransformer> getTransformerClass() {
+        return clazz;
+    }
+}
@@ -0,0 +1,142 @@
+package net.covers1624.classloader.internal;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A content addressed store of transformed class bytes, shared between a
+ * ModularClassLoader and all of its children.
+ *
+ * Entries are keyed by the class name, a digest of the untransformed bytes and
+ * an id identifying the transformer chain that produced them. This means a changed
+ * class file, or a loader with a different set of transformers, will never be handed
+ * stale bytes. Values are softly held, so old generations of reloaded classes
+ * are dropped under memory pressure, their entries are purged once collected.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class TransformedClassStore {
+
+    private final Map<Key, Entry> store = new ConcurrentHashMap<>();
+    private final ReferenceQueue<byte[]> queue = new ReferenceQueue<>();
+
+    /**
+     * Creates a lookup key for the given untransformed class.
+     *
+     * @param name  The class name.
+     * @param chain The transformer chain id.
+     * @param bytes The untransformed bytes.
+     * @return The key.
+     */
+    public Key key(String name, int chain, byte[] bytes) {
+        return new Key(name, chain, digest(bytes));
+    }
+
+    /**
+     * Gets the transformed bytes for the given key.
+     *
+     * @param key The key.
+     * @return The bytes, null if they are not stored.
+     */
+    public byte[] get(Key key) {
+        purge();
+        Entry entry = store.get(key);
+        return entry != null ? entry.get() : null;
+    }
+
+    /**
+     * Stores the transformed bytes for the given key.
+     *
+     * @param key   The key.
+     * @param bytes The transformed bytes.
+     */
+    public void put(Key key, byte[] bytes) {
+        purge();
+        store.put(key, new Entry(key, bytes, queue));
+    }
+
+    /**
+     * @return The number of entries.
+     */
+    public int size() {
+        purge();
+        return store.size();
+    }
+
+    /**
+     * @return The total size of the stored bytes which have not been collected.
+     */
+    public long getRetainedBytes() {
+        long total = 0;
+        for (Entry ref : store.values()) {
+            byte[] bytes = ref.get();
+            if (bytes != null) {
+                total += bytes.length;
+            }
+        }
+        return total;
+    }
+
+    //Drops the entries whose bytes have been collected.
+    private void purge() {
+        Entry entry;
+        while ((entry = (Entry) queue.poll()) != null) {
+            store.remove(entry.key, entry);
+        }
+    }
+
+    private static byte[] digest(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static final class Entry extends SoftReference<byte[]> {
+
+        private final Key key;
+
+        private Entry(Key key, byte[] bytes, ReferenceQueue<byte[]> queue) {
+            super(bytes, queue);
+            this.key = key;
+        }
+    }
+
+    public static final class Key {
+
+        private final String name;
+        private final int chain;
+        private final byte[] digest;
+        private final int hash;
+
+        private Key(String name, int chain, byte[] digest) {
+            this.name = name;
+            this.chain = chain;
+            this.digest = digest;
+            this.hash = (name.hashCode() * 31 + chain) * 31 + Arrays.hashCode(digest);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash && chain == other.chain && name.equals(other.name) && Arrays.equals(digest, other.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package net.covers1624.classloader.internal;
+
+import net.covers1624.classloader.api.IClassTransformer;
+
+import java.util.Deque;
+
+/**
+ * Runs a fixed chain of IClassTransformers.
+ * Implementations are generated by {@link TransformerDispatcherGenerator}.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public interface TransformerDispatcher {
+
+    /**
+     * Runs the transformer chain over the bytes provided.
+     * Each transformer is pushed to the active stack whilst it runs.
+     *
+     * @param name               The name of the class 'java.lang.Object'.
+     * @param bytes              The bytes of the class.
+     * @param activeTransformers The active transformer stack.
+     * @return The transformed bytes.
+     */
+    byte[] transform(String name, byte[] bytes, Deque<IClassTransformer> activeTransformers);
+}
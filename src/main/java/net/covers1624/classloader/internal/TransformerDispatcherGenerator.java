@@ -0,0 +1,118 @@
+package net.covers1624.classloader.internal;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates {@link TransformerDispatcher} implementations for a fixed number of transformers.
+ *
+ * ModularClassLoader's generic transform loop has a single call site for
+ * {@code IClassTransformer.transform}, which goes megamorphic as soon as more than two
+ * transformer types are registered, preventing the JIT from inlining any of them.
+ * The generated class stores each transformer in its own field and calls it from its own
+ * call site, so every call site only ever sees a single receiver type. The generated
+ * class is equivalent to:
+ * <pre>
+ * public byte[] transform(String name, byte[] bytes, Deque stack) {
+ *     stack.push(t0);
+ *     try {
+ *         bytes = t0.transform(name, bytes);
+ *     } finally {
+ *         stack.pop();
+ *     }
+ *     //Repeated for t1..tN
+ *     return bytes;
+ * }
+ * </pre>
+ *
+ * Like ProtectedAccessor, this requires the ObjectWeb ASM library, and is called via
+ * reflection so it and ASM are loaded through the ModularClassLoader.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class TransformerDispatcherGenerator {
+
+    private static final String TRANSFORMER = "net/covers1624/classloader/api/IClassTransformer";
+    private static final String DISPATCHER = "net/covers1624/classloader/internal/TransformerDispatcher";
+
+    /**
+     * Generates a dispatcher class. The class has a single public constructor
+     * taking an {@code IClassTransformer[]} of exactly 'count' elements.
+     *
+     * @param name  The internal name for the class.
+     * @param count The number of transformers.
+     * @return The class bytes.
+     */
+    private static byte[] spinClass(String name, int count) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        MethodVisitor mv;
+        cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER | ACC_FINAL | ACC_SYNTHETIC, name, null, "java/lang/Object", new String[] { DISPATCHER });
+
+        for (int i = 0; i < count; i++) {
+            cw.visitField(ACC_PRIVATE | ACC_FINAL, "t" + i, "L" + TRANSFORMER + ";", null, null).visitEnd();
+        }
+
+        mv = cw.visitMethod(ACC_PUBLIC, "<init>", "([L" + TRANSFORMER + ";)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        for (int i = 0; i < count; i++) {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitLdcInsn(i);
+            mv.visitInsn(AALOAD);
+            mv.visitFieldInsn(PUTFIELD, name, "t" + i, "L" + TRANSFORMER + ";");
+        }
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "transform", "(Ljava/lang/String;[BLjava/util/Deque;)[B", null, null);
+        mv.visitCode();
+        for (int i = 0; i < count; i++) {
+            Label start = new Label();
+            Label end = new Label();
+            Label handler = new Label();
+            Label next = new Label();
+            mv.visitTryCatchBlock(start, end, handler, null);
+            //stack.push(tN)
+            mv.visitVarInsn(ALOAD, 3);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, "t" + i, "L" + TRANSFORMER + ";");
+            mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Deque", "push", "(Ljava/lang/Object;)V", true);
+            //bytes = tN.transform(name, bytes)
+            mv.visitLabel(start);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, "t" + i, "L" + TRANSFORMER + ";");
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitMethodInsn(INVOKEINTERFACE, TRANSFORMER, "transform", "(Ljava/lang/String;[B)[B", true);
+            mv.visitVarInsn(ASTORE, 2);
+            mv.visitLabel(end);
+            //stack.pop()
+            mv.visitVarInsn(ALOAD, 3);
+            mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Deque", "pop", "()Ljava/lang/Object;", true);
+            mv.visitInsn(POP);
+            mv.visitJumpInsn(GOTO, next);
+            //finally { stack.pop() } rethrow.
+            mv.visitLabel(handler);
+            mv.visitVarInsn(ASTORE, 4);
+            mv.visitVarInsn(ALOAD, 3);
+            mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Deque", "pop", "()Ljava/lang/Object;", true);
+            mv.visitInsn(POP);
+            mv.visitVarInsn(ALOAD, 4);
+            mv.visitInsn(ATHROW);
+            mv.visitLabel(next);
+        }
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+}
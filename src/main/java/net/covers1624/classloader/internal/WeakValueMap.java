@@ -0,0 +1,92 @@
+package net.covers1624.classloader.internal;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A concurrent Map whose values are only weakly held.
+ * Entries whose values have been collected are purged on write.
+ * Null keys and values are not supported.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class WeakValueMap<K, V> extends AbstractMap<K, V> {
+
+    private final Map<K, ValueRef<K, V>> map = new ConcurrentHashMap<>();
+    private final ReferenceQueue<V> queue = new ReferenceQueue<>();
+
+    @Override
+    public V get(Object key) {
+        ValueRef<K, V> ref = map.get(key);
+        return ref != null ? ref.get() : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        purge();
+        ValueRef<K, V> old = map.put(key, new ValueRef<>(key, value, queue));
+        return old != null ? old.get() : null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        purge();
+        ValueRef<K, V> old = map.remove(key);
+        return old != null ? old.get() : null;
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+        purge();
+    }
+
+    @Override
+    public int size() {
+        purge();
+        return map.size();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        purge();
+        Set<Entry<K, V>> entries = new HashSet<>();
+        map.forEach((k, ref) -> {
+            V v = ref.get();
+            if (v != null) {
+                entries.add(new SimpleImmutableEntry<>(k, v));
+            }
+        });
+        return entries;
+    }
+
+    @SuppressWarnings ("unchecked")
+    private void purge() {
+        Reference<? extends V> ref;
+        while ((ref = queue.poll()) != null) {
+            ValueRef<K, V> vRef = (ValueRef<K, V>) ref;
+            map.remove(vRef.key, vRef);
+        }
+    }
+
+    private static class ValueRef<K, V> extends WeakReference<V> {
+
+        private final K key;
+
+        public ValueRef(K key, V referent, ReferenceQueue<? super V> q) {
+            super(referent, q);
+            this.key = key;
+        }
+    }
+}
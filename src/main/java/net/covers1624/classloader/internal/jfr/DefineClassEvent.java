@@ -0,0 +1,23 @@
+package net.covers1624.classloader.internal.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Emitted when ModularClassLoader defines a class.
+ *
+ * Created by agent on 19/10/2026.
+ */
+@Name ("net.covers1624.classloader.DefineClass")
+@Label ("Define Class")
+@Category ({ "ModularClassLoader" })
+@Description ("A class defined by ModularClassLoader.")
+@StackTrace (false)
+public class DefineClassEvent extends Event {
+
+    @Label ("Class Name")
+    public String className;
+
+    @Label ("Size")
+    @DataAmount
+    public int size;
+}
@@ -0,0 +1,28 @@
+package net.covers1624.classloader.internal.jfr;
+
+/**
+ * Guards access to the JFR event classes in this package.
+ *
+ * The events extend {@code jdk.jfr.Event}, which only exists on Java 11+
+ * and OpenJDK 8u262+. Nothing in this package may be touched unless
+ * {@link #ENABLED} is true, otherwise older runtimes would fail to link
+ * the event classes. When the runtime has JFR but no recording is active,
+ * events cost a single enabled check.
+ *
+ * Can be forcibly disabled with '-Dcovers1624.classloader.no_jfr=true'.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class JfrSupport {
+
+    public static final boolean ENABLED = !Boolean.getBoolean("covers1624.classloader.no_jfr") && isJfrPresent();
+
+    private static boolean isJfrPresent() {
+        try {
+            Class.forName("jdk.jfr.Event", false, JfrSupport.class.getClassLoader());
+            return true;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+}
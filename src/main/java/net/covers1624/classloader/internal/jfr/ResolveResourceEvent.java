@@ -0,0 +1,28 @@
+package net.covers1624.classloader.internal.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Emitted for every IResourceResolver queried by ModularClassLoader.findResource.
+ *
+ * Created by agent on 19/10/2026.
+ */
+@Name ("net.covers1624.classloader.ResolveResource")
+@Label ("Resolve Resource")
+@Category ({ "ModularClassLoader" })
+@Description ("A single IResourceResolver lookup.")
+@StackTrace (false)
+public class ResolveResourceEvent extends Event {
+
+    @Label ("Resource")
+    public String resource;
+
+    @Label ("Resolver")
+    public String resolver;
+
+    @Label ("Resolver Index")
+    public int resolverIndex;
+
+    @Label ("Found")
+    public boolean found;
+}
@@ -0,0 +1,26 @@
+package net.covers1624.classloader.internal.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Emitted when a class load re-enters itself whilst being transformed,
+ * causing the transformers for that class to be skipped.
+ *
+ * Created by agent on 19/10/2026.
+ */
+@Name ("net.covers1624.classloader.TransformAbort")
+@Label ("Transform Abort")
+@Category ({ "ModularClassLoader" })
+@Description ("A reentrant class load aborted the active transformers.")
+public class TransformAbortEvent extends Event {
+
+    @Label ("Class Name")
+    public String className;
+
+    @Label ("Transformer")
+    @Description ("The transformer that was active when the reentrant load happened.")
+    public String transformer;
+
+    @Label ("Loading Depth")
+    public int depth;
+}
@@ -0,0 +1,41 @@
+package net.covers1624.classloader.internal.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Emitted for every IClassTransformer invocation.
+ *
+ * Created by agent on 19/10/2026.
+ */
+@Name ("net.covers1624.classloader.TransformClass")
+@Label ("Transform Class")
+@Category ({ "ModularClassLoader" })
+@Description ("A single IClassTransformer invocation.")
+@StackTrace (false)
+public class TransformClassEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(TransformClassEvent.class);
+
+    @Label ("Class Name")
+    public String className;
+
+    @Label ("Transformer")
+    public String transformer;
+
+    @Label ("Input Size")
+    @DataAmount
+    public int inputSize;
+
+    @Label ("Output Size")
+    @DataAmount
+    public int outputSize;
+
+    /**
+     * Checks if the event is enabled in any recording, without allocating an event.
+     *
+     * @return If enabled.
+     */
+    public static boolean isTypeEnabled() {
+        return TYPE.isEnabled();
+    }
+}
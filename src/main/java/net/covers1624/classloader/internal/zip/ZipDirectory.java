@@ -0,0 +1,402 @@
+package net.covers1624.classloader.internal.zip;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * A minimal read only zip reader over a {@link ZipSource}.
+ *
+ * Unlike {@link java.util.zip.ZipFile}, this can read an archive from any region
+ * of memory, most importantly a slice of a memory mapped outer jar, allowing STORED
+ * jars nested inside other jars to be read in place without extracting them.
+ * Only the central directory is parsed up front, local headers are read lazily
+ * the first time an entry is opened. All reads are positional, so the source can be
+ * closed and swapped for a new one once the directory is read, see {@link #withSource}.
+ * Zip64 archives are supported.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public final class ZipDirectory {
+
+    private static final int EOCD_SIG = 0x06054b50;
+    private static final int ZIP64_LOCATOR_SIG = 0x07064b50;
+    private static final int ZIP64_EOCD_SIG = 0x06064b50;
+    private static final int CEN_SIG = 0x02014b50;
+    private static final int LOC_SIG = 0x04034b50;
+
+    public static final int STORED = 0;
+    public static final int DEFLATED = 8;
+
+    private final ZipSource source;
+    private final Map<String, Entry> entries;
+
+    private ZipDirectory(ZipSource source, Map<String, Entry> entries) {
+        this.source = source;
+        this.entries = entries;
+    }
+
+    /**
+     * Reads the central directory of the zip contained in the given buffer.
+     * The buffer's position and limit bound the archive, and must not be modified afterwards.
+     *
+     * @param buffer The buffer.
+     * @return The ZipDirectory.
+     * @throws IOException If the archive is malformed.
+     */
+    public static ZipDirectory read(ByteBuffer buffer) throws IOException {
+        return read(ZipSource.of(buffer));
+    }
+
+    /**
+     * Reads the central directory of the zip provided by the given source.
+     * Only the end of the archive and the central directory itself are read.
+     *
+     * @param source The source.
+     * @return The ZipDirectory.
+     * @throws IOException If the archive is malformed or could not be read.
+     */
+    public static ZipDirectory read(ZipSource source) throws IOException {
+        try {
+            long length = source.size();
+            int tailLen = (int) Math.min(length, 22 + 0xFFFF + 20);
+            long tailStart = length - tailLen;
+            ByteBuffer tail = source.slice(tailStart, tailLen).order(ByteOrder.LITTLE_ENDIAN);
+            int eocd = findEOCD(tail);
+            long count = tail.getShort(eocd + 10) & 0xFFFF;
+            long cenSize = tail.getInt(eocd + 12) & 0xFFFFFFFFL;
+            long cenOffset = tail.getInt(eocd + 16) & 0xFFFFFFFFL;
+            long cenEnd = tailStart + eocd;
+            if (eocd >= 20 && tail.getInt(eocd - 20) == ZIP64_LOCATOR_SIG) {
+                long zip64Pos = tail.getLong(eocd - 20 + 8);
+                ByteBuffer zip64 = source.slice(zip64Pos, 56).order(ByteOrder.LITTLE_ENDIAN);
+                if (zip64.getInt(0) != ZIP64_EOCD_SIG) {
+                    throw new ZipException("Invalid Zip64 end of central directory.");
+                }
+                count = zip64.getLong(32);
+                cenSize = zip64.getLong(40);
+                cenOffset = zip64.getLong(48);
+                cenEnd = zip64Pos;
+            }
+            //Some tools prepend data to archives (self extracting jars), adjust for it.
+            long prepended = (cenEnd - cenSize) - cenOffset;
+            if (prepended < 0) {
+                prepended = 0;
+            }
+
+            ByteBuffer buf = source.slice(cenOffset + prepended, checkedInt(cenSize)).order(ByteOrder.LITTLE_ENDIAN);
+            Map<String, Entry> entries = new LinkedHashMap<>();
+            int pos = 0;
+            for (long i = 0; i < count; i++) {
+                if (buf.getInt(pos) != CEN_SIG) {
+                    throw new ZipException("Invalid central directory header at " + pos);
+                }
+                int method = buf.getShort(pos + 10) & 0xFFFF;
+                long time = buf.getInt(pos + 12) & 0xFFFFFFFFL;
+                long csize = buf.getInt(pos + 20) & 0xFFFFFFFFL;
+                long size = buf.getInt(pos + 24) & 0xFFFFFFFFL;
+                int nameLen = buf.getShort(pos + 28) & 0xFFFF;
+                int extraLen = buf.getShort(pos + 30) & 0xFFFF;
+                int commentLen = buf.getShort(pos + 32) & 0xFFFF;
+                long locOffset = buf.getInt(pos + 42) & 0xFFFFFFFFL;
+                String name = string(buf, pos + 46, nameLen);
+                if (size == 0xFFFFFFFFL || csize == 0xFFFFFFFFL || locOffset == 0xFFFFFFFFL) {
+                    //Zip64 extended information, fields are only present if their header value is maxed.
+                    int extra = pos + 46 + nameLen;
+                    int extraEnd = extra + extraLen;
+                    while (extra + 4 <= extraEnd) {
+                        int id = buf.getShort(extra) & 0xFFFF;
+                        int len = buf.getShort(extra + 2) & 0xFFFF;
+                        if (id == 0x0001) {
+                            int off = extra + 4;
+                            if (size == 0xFFFFFFFFL) {
+                                size = buf.getLong(off);
+                                off += 8;
+                            }
+                            if (csize == 0xFFFFFFFFL) {
+                                csize = buf.getLong(off);
+                                off += 8;
+                            }
+                            if (locOffset == 0xFFFFFFFFL) {
+                                locOffset = buf.getLong(off);
+                            }
+                            break;
+                        }
+                        extra += 4 + len;
+                    }
+                }
+                entries.putIfAbsent(name, new Entry(name, method, time, csize, size, locOffset + prepended));
+                pos += 46 + nameLen + extraLen + commentLen;
+            }
+            return new ZipDirectory(source, Collections.unmodifiableMap(entries));
+        } catch (IndexOutOfBoundsException e) {
+            throw new ZipException("Truncated zip archive.");
+        }
+    }
+
+    /**
+     * Creates a ZipDirectory sharing this directory's entries, reading
+     * entry data from a different source of the same archive.
+     *
+     * @param source The new source.
+     * @return The new ZipDirectory.
+     */
+    public ZipDirectory withSource(ZipSource source) {
+        return new ZipDirectory(source, entries);
+    }
+
+    /**
+     * @param name The entry name.
+     * @return The entry, null if it does not exist.
+     */
+    @Nullable
+    public Entry getEntry(String name) {
+        return entries.get(name);
+    }
+
+    /**
+     * @return All entries, in central directory order.
+     */
+    public Collection<Entry> getEntries() {
+        return entries.values();
+    }
+
+    /**
+     * Gets the raw data of an entry, as stored in the archive.
+     * For STORED entries this is the entry's content.
+     *
+     * @param entry The entry.
+     * @return A new buffer over the data, independent of any other. A view for memory backed sources.
+     * @throws IOException If the entry's local header is invalid.
+     */
+    public ByteBuffer getRawData(Entry entry) throws IOException {
+        return source.slice(dataOffset(entry), checkedInt(entry.compressedSize));
+    }
+
+    /**
+     * Opens an InputStream for the content of the entry.
+     *
+     * @param entry The entry.
+     * @return The InputStream.
+     * @throws IOException If the entry uses an unsupported compression method or is invalid.
+     */
+    public InputStream open(Entry entry) throws IOException {
+        InputStream is = new SourceInputStream(source, dataOffset(entry), entry.compressedSize);
+        switch (entry.method) {
+            case STORED:
+                return is;
+            case DEFLATED:
+                Inflater inflater = new Inflater(true);
+                return new InflaterInputStream(is, inflater, (int) Math.min(Math.max(entry.size, 64), 8192)) {
+                    private boolean closed;
+
+                    @Override
+                    public void close() throws IOException {
+                        if (!closed) {
+                            closed = true;
+                            super.close();
+                            inflater.end();
+                        }
+                    }
+
+                    @Override
+                    public int available() throws IOException {
+                        return closed ? 0 : super.available();
+                    }
+                };
+            default:
+                throw new ZipException("Unsupported compression method " + entry.method + " for " + entry.name);
+        }
+    }
+
+    private long dataOffset(Entry entry) throws IOException {
+        long offset = entry.dataOffset;
+        if (offset == -1) {
+            ByteBuffer loc = source.slice(entry.localHeaderOffset, 30).order(ByteOrder.LITTLE_ENDIAN);
+            if (loc.getInt(0) != LOC_SIG) {
+                throw new ZipException("Invalid local header for " + entry.name);
+            }
+            int nameLen = loc.getShort(26) & 0xFFFF;
+            int extraLen = loc.getShort(28) & 0xFFFF;
+            entry.dataOffset = offset = entry.localHeaderOffset + 30 + nameLen + extraLen;
+        }
+        return offset;
+    }
+
+    private static int findEOCD(ByteBuffer buf) throws ZipException {
+        int min = Math.max(0, buf.limit() - 22 - 0xFFFF);
+        for (int pos = buf.limit() - 22; pos >= min; pos--) {
+            if (buf.getInt(pos) == EOCD_SIG && pos + 22 + (buf.getShort(pos + 20) & 0xFFFF) == buf.limit()) {
+                return pos;
+            }
+        }
+        throw new ZipException("End of central directory not found.");
+    }
+
+    private static String string(ByteBuffer buf, int pos, int len) {
+        byte[] bytes = new byte[len];
+        ByteBuffer dup = buf.duplicate();
+        dup.position(pos);
+        dup.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int checkedInt(long value) throws ZipException {
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new ZipException("Zip offset out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    public static final class Entry {
+
+        private final String name;
+        private final int method;
+        private final long dosTime;
+        private final long compressedSize;
+        private final long size;
+        private final long localHeaderOffset;
+        private volatile long dataOffset = -1;
+
+        private Entry(String name, int method, long dosTime, long compressedSize, long size, long localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.dosTime = dosTime;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getMethod() {
+            return method;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getCompressedSize() {
+            return compressedSize;
+        }
+
+        public boolean isDirectory() {
+            return name.endsWith("/");
+        }
+
+        /**
+         * @return The modification time in milliseconds, local time as per the zip spec.
+         */
+        @SuppressWarnings ("deprecation")
+        public long getTime() {
+            int date = (int) (dosTime >> 16);
+            int time = (int) dosTime;
+            return new java.util.Date(((date >> 9) & 0x7F) + 80, ((date >> 5) & 0x0F) - 1, date & 0x1F, (time >> 11) & 0x1F, (time >> 5) & 0x3F, (time << 1) & 0x3E).getTime();
+        }
+    }
+
+    //Streams a region of a ZipSource in chunks, so channel backed sources are never read whole.
+    //A single session is held from the first read until the end is reached or the stream is closed.
+    private static class SourceInputStream extends InputStream {
+
+        private final ZipSource source;
+        private final ByteBuffer buf;
+        private long pos;
+        private long remaining;
+        @Nullable
+        private ZipSource.Session session;
+
+        private SourceInputStream(ZipSource source, long pos, long length) {
+            this.source = source;
+            this.pos = pos;
+            remaining = length;
+            buf = ByteBuffer.allocate((int) Math.max(1, Math.min(length, 8192)));
+            buf.flip();
+        }
+
+        @Override
+        public int read() throws IOException {
+            return fill() ? buf.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            len = Math.min(len, buf.remaining());
+            buf.get(b, off, len);
+            return len;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skip = Math.max(0, Math.min(n, buf.remaining() + remaining));
+            int fromBuf = (int) Math.min(skip, buf.remaining());
+            buf.position(buf.position() + fromBuf);
+            pos += skip - fromBuf;
+            remaining -= skip - fromBuf;
+            return skip;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, buf.remaining() + remaining);
+        }
+
+        @Override
+        public void close() throws IOException {
+            remaining = 0;
+            buf.clear().flip();
+            release();
+        }
+
+        private boolean fill() throws IOException {
+            if (buf.hasRemaining()) {
+                return true;
+            }
+            if (remaining <= 0) {
+                return false;
+            }
+            if (session == null) {
+                session = source.open();
+            }
+            buf.clear();
+            buf.limit((int) Math.min(buf.capacity(), remaining));
+            session.read(pos, buf);
+            buf.flip();
+            pos += buf.limit();
+            remaining -= buf.limit();
+            if (remaining <= 0) {
+                //Everything is buffered, don't wait on the caller to close.
+                release();
+            }
+            return true;
+        }
+
+        private void release() throws IOException {
+            ZipSource.Session session = this.session;
+            if (session != null) {
+                this.session = null;
+                session.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package net.covers1624.classloader.internal.zip;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Random access to the bytes of a zip archive, used by {@link ZipDirectory}.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public interface ZipSource {
+
+    /**
+     * @return The size of the archive in bytes.
+     */
+    long size() throws IOException;
+
+    /**
+     * Reads exactly {@code dst.remaining()} bytes, starting at the given position.
+     *
+     * @param position The position in the archive.
+     * @param dst      The buffer to read into.
+     * @throws IOException If the read fails or the end of the archive is reached.
+     */
+    void read(long position, ByteBuffer dst) throws IOException;
+
+    /**
+     * Gets a region of the archive as a ByteBuffer.
+     * Sources backed by memory return a view, others copy the region.
+     *
+     * @param position The position in the archive.
+     * @param length   The length of the region.
+     * @return The region.
+     */
+    default ByteBuffer slice(long position, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        read(position, buf);
+        buf.flip();
+        return buf;
+    }
+
+    /**
+     * Opens this source for a run of reads, such as streaming an entry, so any
+     * underlying resource is acquired once rather than per read.
+     * Sources which hold no resources return a session which simply delegates.
+     *
+     * @return The session, must be closed once done.
+     */
+    default Session open() throws IOException {
+        ZipSource source = this;
+        return new Session() {
+            @Override
+            public long size() throws IOException {
+                return source.size();
+            }
+
+            @Override
+            public void read(long position, ByteBuffer dst) throws IOException {
+                source.read(position, dst);
+            }
+
+            @Override
+            public ByteBuffer slice(long position, int length) throws IOException {
+                return source.slice(position, length);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * Creates a ZipSource for the remaining bytes of the given buffer.
+     *
+     * @param buffer The buffer, must not be modified afterwards.
+     * @return The ZipSource.
+     */
+    static ZipSource of(ByteBuffer buffer) {
+        ByteBuffer buf = buffer.slice();
+        return new ZipSource() {
+            @Override
+            public long size() {
+                return buf.limit();
+            }
+
+            @Override
+            public void read(long position, ByteBuffer dst) throws IOException {
+                if (position < 0 || position + dst.remaining() > buf.limit()) {
+                    throw new EOFException();
+                }
+                ByteBuffer dup = buf.duplicate();
+                dup.position((int) position);
+                dup.limit((int) position + dst.remaining());
+                dst.put(dup);
+            }
+
+            @Override
+            public ByteBuffer slice(long position, int length) throws IOException {
+                if (position < 0 || position + length > buf.limit()) {
+                    throw new EOFException();
+                }
+                ByteBuffer dup = buf.duplicate();
+                dup.position((int) position);
+                dup.limit((int) position + length);
+                return dup.slice();
+            }
+        };
+    }
+
+    /**
+     * Creates a ZipSource reading from a FileChannel with positional reads.
+     * The channel is not closed by the ZipSource.
+     *
+     * @param channel The channel.
+     * @return The ZipSource.
+     */
+    static ZipSource of(FileChannel channel) {
+        return new ZipSource() {
+            @Override
+            public long size() throws IOException {
+                return channel.size();
+            }
+
+            @Override
+            public void read(long position, ByteBuffer dst) throws IOException {
+                readFully(channel, position, dst);
+            }
+        };
+    }
+
+    /**
+     * Reads from the channel at the given position until the buffer is full.
+     *
+     * @param channel  The channel.
+     * @param position The position.
+     * @param dst      The buffer.
+     * @throws IOException If the read fails or the end of the channel is reached.
+     */
+    static void readFully(FileChannel channel, long position, ByteBuffer dst) throws IOException {
+        while (dst.hasRemaining()) {
+            int read = channel.read(dst, position);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * A ZipSource holding its underlying resource until closed, see {@link #open()}.
+     */
+    interface Session extends ZipSource, Closeable {
+    }
+}
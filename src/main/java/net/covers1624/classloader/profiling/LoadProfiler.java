@@ -0,0 +1,245 @@
+package net.covers1624.classloader.profiling;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Opt-in profiler for ModularClassLoader.
+ *
+ * Records, for each class, the time spent waiting for its class loading lock
+ * versus the time spent holding it, and keeps a {@link LatencyHistogram} for each
+ * {@link Stage} of loading. Any single load which takes longer than the slow load
+ * threshold is flagged as a {@link SlowLoad}, along with the chain of class loads
+ * which were in progress on that thread when it was triggered, which identifies
+ * transformers or static initializers causing nested loads.
+ *
+ * Enable via {@link net.covers1624.classloader.ModularClassLoader#enableProfiler(long)}
+ * or '-Dcovers1624.classloader.profile=&lt;threshold millis&gt;', the latter logs
+ * a report for each live ModularClassLoader on shutdown, at info level.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class LoadProfiler {
+
+    private static final int MAX_SLOW_LOADS = 256;
+
+    private final long slowThresholdNanos;
+    private final Map<Stage, LatencyHistogram> histograms = new EnumMap<>(Stage.class);
+    private final Map<String, ClassStats> classStats = new ConcurrentHashMap<>();
+    private final Deque<SlowLoad> slowLoads = new ArrayDeque<>();
+    private volatile Consumer<SlowLoad> slowLoadListener;
+
+    public LoadProfiler(long slowThresholdMillis) {
+        slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        for (Stage stage : Stage.values()) {
+            histograms.put(stage, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Records the time taken by a stage of loading.
+     *
+     * @param stage The stage.
+     * @param nanos The time taken.
+     */
+    public void record(Stage stage, long nanos) {
+        histograms.get(stage).record(nanos);
+    }
+
+    /**
+     * Records a call to loadClass.
+     *
+     * @param name      The class name.
+     * @param waitNanos The time spent waiting for the class loading lock.
+     * @param holdNanos The time spent holding the class loading lock.
+     * @param loading   The loads in progress on this thread which triggered this one, innermost first.
+     */
+    public void recordLoad(String name, long waitNanos, long holdNanos, Collection<String> loading) {
+        histograms.get(Stage.LOCK_WAIT).record(waitNanos);
+        histograms.get(Stage.LOCK_HOLD).record(holdNanos);
+        ClassStats stats = classStats.computeIfAbsent(name, ClassStats::new);
+        stats.loads.increment();
+        stats.waitNanos.add(waitNanos);
+        stats.holdNanos.add(holdNanos);
+        if (waitNanos + holdNanos >= slowThresholdNanos) {
+            List<String> chain = new ArrayList<>(loading);
+            Collections.reverse(chain);
+            chain.add(name);
+            SlowLoad slow = new SlowLoad(name, waitNanos, holdNanos, chain, Thread.currentThread().getName());
+            synchronized (slowLoads) {
+                if (slowLoads.size() >= MAX_SLOW_LOADS) {
+                    slowLoads.removeFirst();
+                }
+                slowLoads.addLast(slow);
+            }
+            Consumer<SlowLoad> listener = slowLoadListener;
+            if (listener != null) {
+                listener.accept(slow);
+            }
+        }
+    }
+
+    /**
+     * Sets a listener to be notified of slow loads as they happen.
+     *
+     * @param listener The listener, null to remove.
+     */
+    public void setSlowLoadListener(Consumer<SlowLoad> listener) {
+        slowLoadListener = listener;
+    }
+
+    public LatencyHistogram getHistogram(Stage stage) {
+        return histograms.get(stage);
+    }
+
+    /**
+     * @param name The class name.
+     * @return The lock statistics for the class, null if it has not been loaded.
+     */
+    public ClassStats getClassStats(String name) {
+        return classStats.get(name);
+    }
+
+    /**
+     * @param limit The maximum number of classes to return.
+     * @return The classes with the highest total lock wait time, highest first.
+     */
+    public List<ClassStats> getMostContended(int limit) {
+        List<ClassStats> stats = new ArrayList<>(classStats.values());
+        stats.sort(Comparator.comparingLong(ClassStats::getWaitNanos).reversed());
+        return stats.subList(0, Math.min(limit, stats.size()));
+    }
+
+    /**
+     * @return The most recent slow loads, oldest first.
+     */
+    public List<SlowLoad> getSlowLoads() {
+        synchronized (slowLoads) {
+            return new ArrayList<>(slowLoads);
+        }
+    }
+
+    /**
+     * @return A human readable summary.
+     */
+    public String report() {
+        StringBuilder builder = new StringBuilder("ModularClassLoader profile:\n");
+        for (Stage stage : Stage.values()) {
+            builder.append(String.format(Locale.ROOT, "  %-10s %s%n", stage.name(), histograms.get(stage)));
+        }
+        builder.append("  Most contended:\n");
+        for (ClassStats stats : getMostContended(10)) {
+            builder.append("    ").append(stats).append('\n');
+        }
+        List<SlowLoad> slow = getSlowLoads();
+        builder.append("  Slow loads (").append(slow.size()).append("):\n");
+        for (SlowLoad load : slow) {
+            builder.append("    ").append(load).append('\n');
+        }
+        return builder.toString();
+    }
+
+    public enum Stage {
+        /**
+         * Waiting to acquire the class loading lock.
+         */
+        LOCK_WAIT,
+        /**
+         * Holding the class loading lock, includes all other stages and any nested loads.
+         */
+        LOCK_HOLD,
+        /**
+         * Finding and reading class bytes from the resolvers.
+         */
+        RESOLVE,
+        /**
+         * Running the transformer chain.
+         */
+        TRANSFORM,
+        /**
+         * Defining the class with the JVM.
+         */
+        DEFINE
+    }
+
+    public static class ClassStats {
+
+        private final String name;
+        private final LongAdder loads = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAdder holdNanos = new LongAdder();
+
+        private ClassStats(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getLoads() {
+            return loads.sum();
+        }
+
+        public long getWaitNanos() {
+            return waitNanos.sum();
+        }
+
+        public long getHoldNanos() {
+            return holdNanos.sum();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s loads=%d wait=%.3fms hold=%.3fms", name, getLoads(), getWaitNanos() / 1e6, getHoldNanos() / 1e6);
+        }
+    }
+
+    public static class SlowLoad {
+
+        private final String name;
+        private final long waitNanos;
+        private final long holdNanos;
+        private final List<String> chain;
+        private final String thread;
+
+        private SlowLoad(String name, long waitNanos, long holdNanos, List<String> chain, String thread) {
+            this.name = name;
+            this.waitNanos = waitNanos;
+            this.holdNanos = holdNanos;
+            this.chain = Collections.unmodifiableList(chain);
+            this.thread = thread;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getWaitNanos() {
+            return waitNanos;
+        }
+
+        public long getHoldNanos() {
+            return holdNanos;
+        }
+
+        /**
+         * @return The loads in progress on the thread, outermost first, ending with this class.
+         */
+        public List<String> getChain() {
+            return chain;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s wait=%.3fms hold=%.3fms thread=%s chain=%s", name, waitNanos / 1e6, holdNanos / 1e6, thread, String.join(" -> ", chain));
+        }
+    }
+}
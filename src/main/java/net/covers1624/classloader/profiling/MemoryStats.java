@@ -0,0 +1,232 @@
+package net.covers1624.classloader.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A snapshot of what a ModularClassLoader is retaining,
+ * see {@link net.covers1624.classloader.ModularClassLoader#getMemoryStats()}.
+ *
+ * Taking a snapshot walks the defined class bytes and the per root counters, and is otherwise constant time,
+ * so it is cheap enough to poll periodically and export as metrics.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class MemoryStats {
+
+    private final int definedClasses;
+    private final int cachedClasses;
+    private final long definedClassBytes;
+    private final int lockMapSize;
+    private final int transformedStoreEntries;
+    private final long transformedStoreBytes;
+    private final long resourceCacheBytes;
+    private final long metaspaceUsed;
+    private final List<ResolverStats> resolvers;
+
+    public MemoryStats(int definedClasses, int cachedClasses, long definedClassBytes, int lockMapSize, int transformedStoreEntries, long transformedStoreBytes, long resourceCacheBytes, List<ResolverStats> resolvers) {
+        this.definedClasses = definedClasses;
+        this.cachedClasses = cachedClasses;
+        this.definedClassBytes = definedClassBytes;
+        this.lockMapSize = lockMapSize;
+        this.transformedStoreEntries = transformedStoreEntries;
+        this.transformedStoreBytes = transformedStoreBytes;
+        this.resourceCacheBytes = resourceCacheBytes;
+        this.resolvers = Collections.unmodifiableList(resolvers);
+        metaspaceUsed = readMetaspaceUsed();
+    }
+
+    /**
+     * @return The number of classes defined by the loader, whose bytes are retained.
+     */
+    public int getDefinedClasses() {
+        return definedClasses;
+    }
+
+    /**
+     * @return The number of classes in the loader's lookup cache, including those loaded by its parent.
+     */
+    public int getCachedClasses() {
+        return cachedClasses;
+    }
+
+    /**
+     * @return The total size of the retained bytes of defined classes.
+     */
+    public long getDefinedClassBytes() {
+        return definedClassBytes;
+    }
+
+    /**
+     * @return The number of per class loading locks held by the loader, -1 if unavailable.
+     */
+    public int getLockMapSize() {
+        return lockMapSize;
+    }
+
+    /**
+     * @return The number of entries in the transformed class store shared with child loaders.
+     */
+    public int getTransformedStoreEntries() {
+        return transformedStoreEntries;
+    }
+
+    /**
+     * @return The total size of the transformed class store's entries which have not been collected.
+     */
+    public long getTransformedStoreBytes() {
+        return transformedStoreBytes;
+    }
+
+    /**
+     * @return The size of the resource cache, 0 if disabled.
+     */
+    public long getResourceCacheBytes() {
+        return resourceCacheBytes;
+    }
+
+    /**
+     * @return The JVM wide metaspace usage when the snapshot was taken, -1 if unavailable.
+     */
+    public long getMetaspaceUsed() {
+        return metaspaceUsed;
+    }
+
+    /**
+     * @return Per resolver statistics, in registration order.
+     */
+    public List<ResolverStats> getResolvers() {
+        return resolvers;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("ModularClassLoader memory:\n");
+        builder.append(String.format("  defined classes: %d (%d bytes retained)\n", definedClasses, definedClassBytes));
+        builder.append(String.format("  cached classes:  %d\n", cachedClasses));
+        builder.append(String.format("  lock map:        %d\n", lockMapSize));
+        builder.append(String.format("  transformed:     %d (%d bytes)\n", transformedStoreEntries, transformedStoreBytes));
+        builder.append(String.format("  resource cache:  %d bytes\n", resourceCacheBytes));
+        builder.append(String.format("  metaspace (JVM): %d bytes\n", metaspaceUsed));
+        builder.append("  resolvers:\n");
+        for (ResolverStats stats : resolvers) {
+            builder.append("    ").append(stats).append("\n");
+            if (stats.roots.size() > 1) {
+                for (RootStats root : stats.roots) {
+                    builder.append("      ").append(root).append("\n");
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    private static long readMetaspaceUsed() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getName().equals("Metaspace")) {
+                return pool.getUsage().getUsed();
+            }
+        }
+        return -1;
+    }
+
+    public static class ResolverStats {
+
+        private final int index;
+        private final String name;
+        private final long classes;
+        private final long bytes;
+        private final List<RootStats> roots;
+
+        public ResolverStats(int index, String name, long classes, long bytes, List<RootStats> roots) {
+            this.index = index;
+            this.name = name;
+            this.classes = classes;
+            this.bytes = bytes;
+            this.roots = Collections.unmodifiableList(roots);
+        }
+
+        /**
+         * @return The index of the resolver in the loader.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return A description of the resolver, its class and roots.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return The number of classes read from the resolver.
+         */
+        public long getClasses() {
+            return classes;
+        }
+
+        /**
+         * @return The total size of the classes read from the resolver, before transformation.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * The classes read from the resolver, broken down by the root, jar or directory, they were found in.
+         * Roots no class was read from are omitted.
+         *
+         * @return Per root statistics, ordered by root.
+         */
+        public List<RootStats> getRoots() {
+            return roots;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("#%d %s: %d classes, %d bytes", index, name, classes, bytes);
+        }
+    }
+
+    public static class RootStats {
+
+        private final String root;
+        private final long classes;
+        private final long bytes;
+
+        public RootStats(String root, long classes, long bytes) {
+            this.root = root;
+            this.classes = classes;
+            this.bytes = bytes;
+        }
+
+        /**
+         * @return The root, E.G: 'file:/libs/asm.jar', or the URL of a directory.
+         */
+        public String getRoot() {
+            return root;
+        }
+
+        /**
+         * @return The number of classes read from the root.
+         */
+        public long getClasses() {
+            return classes;
+        }
+
+        /**
+         * @return The total size of the classes read from the root, before transformation.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d classes, %d bytes", root, classes, bytes);
+        }
+    }
+}
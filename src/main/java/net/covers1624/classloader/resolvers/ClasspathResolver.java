@@ -0,0 +1,231 @@
+package net.covers1624.classloader.resolvers;
+
+import net.covers1624.classloader.api.IResourceResolver;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * An IResourceResolver over an ordered set of classpath URLs, like {@link IResourceResolver#fromURLs},
+ * which defers opening jars until a lookup needs them.
+ *
+ * Jars are served by {@link JarResolver}s and directories by {@link DirectoryResolver}s,
+ * any other URL falls back to {@link IResourceResolver#fromURLs}. Construction only reads
+ * file attributes. When given a {@link PackageHintCache}, jars which have not changed
+ * since the last run start out with their packages known, so a lookup only ever opens
+ * the jars which could contain it.
+ *
+ * Jars' 'Class-Path' manifest entries are followed, as with URLClassLoader these are
+ * searched directly after the referencing jar. They are inserted once the referencing
+ * jar has been opened, or straight away if it is known from the hint cache.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class ClasspathResolver implements IResourceResolver, Closeable {
+
+    @Nullable
+    private final PackageHintCache hints;
+    private final JarHandlePool pool;
+    private final List<Element> elements = new CopyOnWriteArrayList<>();
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+
+    public ClasspathResolver(Collection<URL> urls) {
+        this(urls, null);
+    }
+
+    /**
+     * @param urls  The classpath URLs, in lookup order.
+     * @param hints The hint cache to read and record jar packages with, null for none.
+     */
+    public ClasspathResolver(Collection<URL> urls, @Nullable PackageHintCache hints) {
+        this(urls, hints, JarHandlePool.SHARED);
+    }
+
+    /**
+     * @param urls  The classpath URLs, in lookup order.
+     * @param hints The hint cache to read and record jar packages with, null for none.
+     * @param pool  The pool jars are read through.
+     */
+    public ClasspathResolver(Collection<URL> urls, @Nullable PackageHintCache hints, JarHandlePool pool) {
+        this.hints = hints;
+        this.pool = pool;
+        for (URL url : urls) {
+            addURL(url);
+        }
+    }
+
+    @Override
+    public URL findResource(String name) throws IOException {
+        //Indexed, so Class-Path entries inserted during the lookup are also searched.
+        for (int i = 0; i < elements.size(); i++) {
+            Element element = elements.get(i);
+            URL url = element.resolver.findResource(name);
+            element.opened();
+            if (url != null) {
+                return url;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Enumeration<URL> findResources(String name) throws IOException {
+        List<URL> urls = new ArrayList<>();
+        for (int i = 0; i < elements.size(); i++) {
+            Element element = elements.get(i);
+            urls.addAll(Collections.list(element.resolver.findResources(name)));
+            element.opened();
+        }
+        return Collections.enumeration(urls);
+    }
+
+    @Override
+    public Collection<URL> getRoots() {
+        List<URL> roots = new ArrayList<>();
+        for (Element element : elements) {
+            roots.add(element.url);
+        }
+        return roots;
+    }
+
+    /**
+     * @return How many jars have been opened so far.
+     */
+    public int getOpenedJars() {
+        int count = 0;
+        for (Element element : elements) {
+            if (element.resolver instanceof JarResolver && ((JarResolver) element.resolver).isOpen()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Closes any JarFiles handed out by the jars' URL connections, see {@link JarResolver#close()}.
+     * The resolver remains usable.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException error = null;
+        for (Element element : elements) {
+            if (element.resolver instanceof JarResolver) {
+                try {
+                    ((JarResolver) element.resolver).close();
+                } catch (IOException e) {
+                    if (error == null) {
+                        error = e;
+                    } else {
+                        error.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private synchronized void addURL(URL url) {
+        addURL(url, elements.size());
+    }
+
+    //Inserts the URL at the index, followed by its Class-Path if known, returns the index after them.
+    private synchronized int addURL(URL url, int index) {
+        if (!seen.add(url.toString())) {
+            return index;
+        }
+        if (!"file".equals(url.getProtocol())) {
+            elements.add(index, new Element(url, IResourceResolver.fromURLs(Collections.singletonList(url)), null));
+            return index + 1;
+        }
+        File file;
+        try {
+            file = new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            file = new File(url.getPath());
+        }
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        } catch (IOException e) {
+            attrs = null;
+        }
+        if (attrs != null && attrs.isDirectory() || attrs == null && url.getPath().endsWith("/")) {
+            elements.add(index, new Element(url, new DirectoryResolver(file.toPath()), null));
+            return index + 1;
+        }
+        PackageHintCache.Hint hint = null;
+        if (hints != null && attrs != null) {
+            hint = hints.get(file, attrs.size(), attrs.lastModifiedTime().toMillis());
+        }
+        Element element = new Element(url, new JarResolver(file, hint != null ? hint.getPackages() : null, pool), attrs);
+        elements.add(index++, element);
+        if (hint != null) {
+            element.expanded = true;
+            for (String cp : hint.getClassPath()) {
+                try {
+                    index = addURL(new URL(cp), index);
+                } catch (MalformedURLException ignored) {
+                }
+            }
+        }
+        return index;
+    }
+
+    private class Element {
+
+        private final URL url;
+        private final IResourceResolver resolver;
+        @Nullable
+        private final BasicFileAttributes attrs;
+        private volatile boolean expanded;
+
+        private Element(URL url, IResourceResolver resolver, @Nullable BasicFileAttributes attrs) {
+            this.url = url;
+            this.resolver = resolver;
+            this.attrs = attrs;
+        }
+
+        //Called after each lookup, the first time a jar is seen opened, its Class-Path is followed and its hint recorded.
+        private void opened() throws IOException {
+            if (expanded || !(resolver instanceof JarResolver)) {
+                return;
+            }
+            JarResolver jar = (JarResolver) resolver;
+            if (!jar.isOpen()) {
+                return;
+            }
+            synchronized (this) {
+                if (expanded) {
+                    return;
+                }
+                expanded = true;
+            }
+            List<URL> classPath = jar.getClassPath();
+            if (hints != null && attrs != null) {
+                List<String> cp = new ArrayList<>(classPath.size());
+                for (URL u : classPath) {
+                    cp.add(u.toString());
+                }
+                hints.put(jar.getFile(), attrs.size(), attrs.lastModifiedTime().toMillis(), jar.getPackages(), cp);
+            }
+            synchronized (ClasspathResolver.this) {
+                int index = elements.indexOf(this) + 1;
+                for (URL u : classPath) {
+                    index = addURL(u, index);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package net.covers1624.classloader.resolvers;
+
+import net.covers1624.classloader.api.IResourceResolver;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An IResourceResolver for an exploded directory of classes and resources.
+ *
+ * Each directory is listed lazily the first time a resource inside it is requested,
+ * after which misses are answered from the listing without touching the filesystem.
+ * Listings and entries are revalidated at most once per refresh interval, using file
+ * attributes rather than re-listing: a directory is only re-listed when its
+ * modification time has changed, and a hit is only checked for existence, size and
+ * modification time.
+ *
+ * The refresh interval defaults to 1000ms, and can be changed via
+ * '-Dcovers1624.classloader.dir_refresh=&lt;millis&gt;'. A negative interval
+ * disables revalidation entirely, for layouts which never change.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class DirectoryResolver implements IResourceResolver {
+
+    private static final long DEFAULT_REFRESH = Long.getLong("covers1624.classloader.dir_refresh", 1000);
+
+    private final Path root;
+    private final URL rootURL;
+    private final long refreshNanos;
+    private final Map<String, Listing> listings = new ConcurrentHashMap<>();
+
+    public DirectoryResolver(Path root) {
+        this(root, DEFAULT_REFRESH);
+    }
+
+    /**
+     * @param root          The root directory.
+     * @param refreshMillis How often listings and entries are revalidated, negative for never.
+     */
+    public DirectoryResolver(Path root, long refreshMillis) {
+        this.root = root.toAbsolutePath().normalize();
+        this.refreshNanos = refreshMillis < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(refreshMillis);
+        try {
+            rootURL = this.root.toUri().toURL();
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid root: " + root, e);
+        }
+    }
+
+    @Override
+    public URL findResource(String name) throws IOException {
+        Entry entry = lookup(name);
+        return entry != null ? entry.getURL() : null;
+    }
+
+    @Override
+    public Enumeration<URL> findResources(String name) throws IOException {
+        URL url = findResource(name);
+        return url != null ? Collections.enumeration(Collections.singletonList(url)) : Collections.emptyEnumeration();
+    }
+
+    @Override
+    public Collection<URL> getRoots() {
+        return Collections.singletonList(rootURL);
+    }
+
+    /**
+     * Drops all cached listings, forcing them to be rebuilt on the next lookup.
+     */
+    public void invalidate() {
+        listings.clear();
+    }
+
+    @Nullable
+    private Entry lookup(String name) throws IOException {
+        boolean wantDir = name.endsWith("/");
+        if (wantDir) {
+            name = name.substring(0, name.length() - 1);
+        }
+        if (name.isEmpty() || !isSafe(name)) {
+            return null;
+        }
+        int idx = name.lastIndexOf('/');
+        String dir = idx == -1 ? "" : name.substring(0, idx);
+        String file = name.substring(idx + 1);
+
+        long now = System.nanoTime();
+        Listing listing = listings.get(dir);
+        if (listing == null) {
+            listing = list(dir, now);
+        }
+        Entry entry = listing.entries.get(file);
+        if (entry == null) {
+            if (!listing.isStale(now)) {
+                return null;
+            }
+            listing = revalidate(dir, listing, now);
+            entry = listing.entries.get(file);
+            if (entry == null) {
+                return null;
+            }
+        }
+        if (entry.isStale(now) && !entry.revalidate(now)) {
+            //Deleted since it was listed, re-list the directory next time it's used.
+            listings.remove(dir, listing);
+            return null;
+        }
+        return entry.directory == wantDir ? entry : null;
+    }
+
+    private Listing revalidate(String dir, Listing listing, long now) throws IOException {
+        FileTime modified = modified(root.resolve(dir));
+        if (Objects.equals(modified, listing.modified)) {
+            listing.checked = now;
+            return listing;
+        }
+        return list(dir, now);
+    }
+
+    private Listing list(String dir, long now) throws IOException {
+        Path path = root.resolve(dir);
+        FileTime modified = modified(path);
+        Map<String, Entry> entries = new HashMap<>();
+        if (modified != null) {
+            Listing old = listings.get(dir);
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+                for (Path child : stream) {
+                    String fileName = child.getFileName().toString();
+                    //Keep existing entries, they will revalidate themselves.
+                    Entry existing = old != null ? old.entries.get(fileName) : null;
+                    entries.put(fileName, existing != null ? existing : new Entry(child));
+                }
+            } catch (NotDirectoryException | NoSuchFileException ignored) {
+                modified = null;
+            }
+        }
+        Listing listing = new Listing(modified, entries, now);
+        listings.put(dir, listing);
+        return listing;
+    }
+
+    @Nullable
+    private static FileTime modified(Path path) throws IOException {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            return attrs.isDirectory() ? attrs.lastModifiedTime() : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private static boolean isSafe(String name) {
+        if (name.startsWith("/") || name.indexOf('\\') != -1) {
+            return false;
+        }
+        for (String seg : name.split("/")) {
+            if (seg.isEmpty() || seg.equals(".") || seg.equals("..")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isStale(long checked, long now) {
+        return refreshNanos >= 0 && now - checked > refreshNanos;
+    }
+
+    private final class Listing {
+
+        @Nullable
+        private final FileTime modified;
+        private final Map<String, Entry> entries;
+        private volatile long checked;
+
+        private Listing(@Nullable FileTime modified, Map<String, Entry> entries, long checked) {
+            this.modified = modified;
+            this.entries = entries;
+            this.checked = checked;
+        }
+
+        private boolean isStale(long now) {
+            return DirectoryResolver.this.isStale(checked, now);
+        }
+    }
+
+    private final class Entry {
+
+        private final Path path;
+        private volatile boolean validated;
+        private volatile boolean directory;
+        private volatile long size;
+        private volatile long modified;
+        private volatile long checked;
+        private volatile URL url;
+
+        private Entry(Path path) {
+            this.path = path;
+        }
+
+        private boolean isStale(long now) {
+            return !validated || DirectoryResolver.this.isStale(checked, now);
+        }
+
+        //Re-reads the attributes of this entry, false if it no longer exists.
+        private boolean revalidate(long now) throws IOException {
+            BasicFileAttributes attrs;
+            try {
+                attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                return false;
+            }
+            long newModified = attrs.lastModifiedTime().toMillis();
+            if (!validated || attrs.isDirectory() != directory || attrs.size() != size || newModified != modified) {
+                directory = attrs.isDirectory();
+                size = attrs.size();
+                modified = newModified;
+                //Directory URLs need a trailing slash, so the URL is derived from the attributes.
+                url = null;
+            }
+            checked = now;
+            validated = true;
+            return true;
+        }
+
+        private URL getURL() throws MalformedURLException {
+            URL url = this.url;
+            if (url == null) {
+                this.url = url = path.toUri().toURL();
+            }
+            return url;
+        }
+    }
+}
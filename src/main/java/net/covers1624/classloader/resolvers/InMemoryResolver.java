@@ -0,0 +1,207 @@
+package net.covers1624.classloader.resolvers;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.api.IClassDefinitionListener;
+import net.covers1624.classloader.api.IResourceResolver;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An IResourceResolver serving resources held in memory, such as generated classes.
+ *
+ * Resources are registered in bulk via {@link #putAll(Map)} or {@link #putClasses(Map)},
+ * and served via 'mcl-mem:' URLs backed by a handler bound to this resolver, so
+ * {@link ClassLoader#getResource(String)} and friends behave as usual, without any disk I/O.
+ *
+ * When created with 'releaseDefined', a class's bytes are dropped as soon as it is defined, provided
+ * this resolver is registered to exactly one ModularClassLoader, and that loader is not a child.
+ * Such a loader keeps its own strong reference to the defined bytes, children only hold them weakly,
+ * and other loaders sharing this resolver would still need them. Afterwards the class's '.class'
+ * resource no longer exists in this resolver, {@link ModularClassLoader#getClassHierarchy()} falls back
+ * to the defined, transformed, bytes. Register this to its loader before defining any of its classes,
+ * a loader registered later can't load classes which have already been released.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class InMemoryResolver implements IResourceResolver, IClassDefinitionListener {
+
+    private static final AtomicInteger idCounter = new AtomicInteger();
+
+    private final Map<String, byte[]> resources = new ConcurrentHashMap<>();
+    private final boolean releaseDefined;
+    private final String base = "/" + idCounter.incrementAndGet() + "/";
+    private final Handler handler = new Handler();
+    //The loaders this is registered to, weakly, children may be discarded.
+    private final Set<ModularClassLoader> loaders = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    public InMemoryResolver() {
+        this(false);
+    }
+
+    /**
+     * @param releaseDefined If class bytes should be dropped once the class is defined.
+     */
+    public InMemoryResolver(boolean releaseDefined) {
+        this.releaseDefined = releaseDefined;
+    }
+
+    /**
+     * Adds a resource, replacing any existing resource with the same name.
+     * The bytes are not copied, and must not be modified afterwards.
+     *
+     * @param name  The resource name, E.G: 'java/lang/Object.class'.
+     * @param bytes The resource's contents.
+     */
+    public void put(String name, byte[] bytes) {
+        resources.put(name, bytes);
+    }
+
+    /**
+     * Adds all the given resources, see {@link #put(String, byte[])}.
+     *
+     * @param resources The resources, by name.
+     */
+    public void putAll(Map<String, byte[]> resources) {
+        this.resources.putAll(resources);
+    }
+
+    /**
+     * Adds a class, see {@link #put(String, byte[])}.
+     *
+     * @param name  The class name, E.G: 'java.lang.Object'.
+     * @param bytes The class bytes.
+     */
+    public void putClass(String name, byte[] bytes) {
+        resources.put(classResource(name), bytes);
+    }
+
+    /**
+     * Adds all the given classes, see {@link #put(String, byte[])}.
+     *
+     * @param classes The class bytes, by class name.
+     */
+    public void putClasses(Map<String, byte[]> classes) {
+        classes.forEach(this::putClass);
+    }
+
+    /**
+     * Removes a resource.
+     *
+     * @param name The resource name.
+     * @return If the resource existed.
+     */
+    public boolean remove(String name) {
+        return resources.remove(name) != null;
+    }
+
+    /**
+     * @return The number of resources held.
+     */
+    public int size() {
+        return resources.size();
+    }
+
+    /**
+     * @return The total size of the resources held, in bytes.
+     */
+    public long getRetainedBytes() {
+        long total = 0;
+        for (byte[] bytes : resources.values()) {
+            total += bytes.length;
+        }
+        return total;
+    }
+
+    @Override
+    public URL findResource(String name) throws IOException {
+        return resources.containsKey(name) ? new URL("mcl-mem", "", -1, base + name, handler) : null;
+    }
+
+    @Override
+    public Enumeration<URL> findResources(String name) throws IOException {
+        URL url = findResource(name);
+        return url != null ? Collections.enumeration(Collections.singletonList(url)) : Collections.emptyEnumeration();
+    }
+
+    @Override
+    public Collection<String> getResourceNames() {
+        return Collections.unmodifiableSet(resources.keySet());
+    }
+
+    @Override
+    public void registered(ModularClassLoader loader) {
+        loaders.add(loader);
+    }
+
+    @Override
+    public void classDefined(ModularClassLoader loader, String name) {
+        if (releaseDefined && !loader.isChild() && isSoleLoader(loader)) {
+            resources.remove(classResource(name));
+        }
+    }
+
+    private boolean isSoleLoader(ModularClassLoader loader) {
+        synchronized (loaders) {
+            return loaders.size() == 1 && loaders.contains(loader);
+        }
+    }
+
+    private static String classResource(String name) {
+        return name.replace('.', '/') + ".class";
+    }
+
+    private class Handler extends URLStreamHandler {
+
+        @Override
+        protected URLConnection openConnection(URL u) throws IOException {
+            String file = u.getFile();
+            if (!file.startsWith(base)) {
+                throw new MalformedURLException("Not a URL of this resolver: " + u);
+            }
+            String name = file.substring(base.length());
+            return new URLConnection(u) {
+                @Nullable
+                private byte[] bytes;
+
+                @Override
+                public void connect() throws IOException {
+                    if (!connected) {
+                        bytes = resources.get(name);
+                        if (bytes == null) {
+                            throw new FileNotFoundException(u.toString());
+                        }
+                        connected = true;
+                    }
+                }
+
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    connect();
+                    return new ByteArrayInputStream(bytes);
+                }
+
+                @Override
+                public long getContentLengthLong() {
+                    byte[] bytes = resources.get(name);
+                    return bytes != null ? bytes.length : -1;
+                }
+
+                @Override
+                public int getContentLength() {
+                    return (int) getContentLengthLong();
+                }
+            };
+        }
+    }
+}
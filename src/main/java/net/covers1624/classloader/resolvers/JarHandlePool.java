@@ -0,0 +1,249 @@
+package net.covers1624.classloader.resolvers;
+
+import net.covers1624.classloader.internal.zip.ZipSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of open jar handles, shared between {@link JarResolver}s.
+ *
+ * Only jar central directories are kept in memory, entry data is read through
+ * {@link ZipSource}s from this pool, which open the jar on demand. Once more jars are
+ * open than the pool allows, the least recently used are closed, and transparently
+ * reopened the next time they are read. Handles in use by a read are never closed
+ * underneath it, the pool may briefly exceed its limit instead. Entry streams acquire
+ * a single handle, held until they are fully read or closed, rather than one per chunk.
+ *
+ * The shared pool's size defaults to 256, and can be changed via
+ * '-Dcovers1624.classloader.jar_handles=&lt;count&gt;'.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class JarHandlePool {
+
+    public static final JarHandlePool SHARED = new JarHandlePool(Integer.getInteger("covers1624.classloader.jar_handles", 256));
+
+    private final int maxOpen;
+    private final LinkedHashMap<File, Handle> open = new LinkedHashMap<>(16, 0.75F, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxOpen The maximum number of jars to keep open.
+     */
+    public JarHandlePool(int maxOpen) {
+        if (maxOpen < 1) {
+            throw new IllegalArgumentException("maxOpen must be at least 1: " + maxOpen);
+        }
+        this.maxOpen = maxOpen;
+    }
+
+    /**
+     * Creates a ZipSource for the given jar, which reads via this pool.
+     * No I/O happens until the source is first read.
+     *
+     * @param file The jar.
+     * @return The ZipSource.
+     */
+    public ZipSource source(File file) {
+        return new PooledSource(file.getAbsoluteFile());
+    }
+
+    /**
+     * Closes all idle handles, handles in use are closed once released.
+     */
+    public synchronized void closeAll() {
+        for (Iterator<Handle> it = open.values().iterator(); it.hasNext(); ) {
+            Handle handle = it.next();
+            it.remove();
+            evict(handle);
+        }
+    }
+
+    /**
+     * @return The maximum number of jars kept open.
+     */
+    public int getMaxOpen() {
+        return maxOpen;
+    }
+
+    /**
+     * @return The number of jars currently open.
+     */
+    public synchronized int getOpenCount() {
+        return open.size();
+    }
+
+    /**
+     * @return The number of reads served by an already open jar.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return The number of reads which had to open a jar.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return The number of jars closed to stay within the limit.
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("JarHandlePool[open=%d/%d, hits=%d, misses=%d, evictions=%d]", getOpenCount(), maxOpen, getHits(), getMisses(), getEvictions());
+    }
+
+    private Handle acquire(File file, long expectedSize) throws IOException {
+        synchronized (this) {
+            Handle handle = open.get(file);
+            if (handle != null) {
+                hits.incrementAndGet();
+                handle.refs++;
+                return handle;
+            }
+        }
+        //Opened outside the lock, racing opens of the same jar are resolved below.
+        FileChannel channel = new RandomAccessFile(file, "r").getChannel();
+        //The central directory is only read once, a jar replaced since then can't be read.
+        if (expectedSize != -1 && channel.size() != expectedSize) {
+            channel.close();
+            throw new IOException("Jar changed whilst in use: " + file);
+        }
+        synchronized (this) {
+            Handle handle = open.get(file);
+            if (handle != null) {
+                hits.incrementAndGet();
+                handle.refs++;
+                channel.close();
+                return handle;
+            }
+            misses.incrementAndGet();
+            handle = new Handle(channel);
+            handle.refs++;
+            open.put(file, handle);
+            trim();
+            return handle;
+        }
+    }
+
+    private synchronized void release(Handle handle) throws IOException {
+        handle.refs--;
+        if (handle.evicted && handle.refs == 0) {
+            handle.channel.close();
+        } else if (handle.refs == 0 && open.size() > maxOpen) {
+            //Over the limit whilst this handle was in use.
+            trim();
+        }
+    }
+
+    //Must hold the lock.
+    private void trim() {
+        for (Iterator<Handle> it = open.values().iterator(); open.size() > maxOpen && it.hasNext(); ) {
+            Handle handle = it.next();
+            if (handle.refs == 0) {
+                it.remove();
+                evictions.incrementAndGet();
+                evict(handle);
+            }
+        }
+    }
+
+    private static void evict(Handle handle) {
+        handle.evicted = true;
+        if (handle.refs == 0) {
+            try {
+                handle.channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static class Handle {
+
+        private final FileChannel channel;
+        private int refs;
+        private boolean evicted;
+
+        private Handle(FileChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private class PooledSource implements ZipSource {
+
+        private final File file;
+        private volatile long size = -1;
+
+        private PooledSource(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public long size() throws IOException {
+            long size = this.size;
+            if (size == -1) {
+                Handle handle = acquire(file, -1);
+                try {
+                    this.size = size = handle.channel.size();
+                } finally {
+                    release(handle);
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public void read(long position, ByteBuffer dst) throws IOException {
+            Handle handle = acquire(file, size);
+            try {
+                ZipSource.readFully(handle.channel, position, dst);
+            } finally {
+                release(handle);
+            }
+        }
+
+        @Override
+        public Session open() throws IOException {
+            Handle handle = acquire(file, size);
+            return new Session() {
+                private boolean released;
+
+                @Override
+                public long size() throws IOException {
+                    return handle.channel.size();
+                }
+
+                @Override
+                public void read(long position, ByteBuffer dst) throws IOException {
+                    if (released) {
+                        throw new IOException("Session closed.");
+                    }
+                    ZipSource.readFully(handle.channel, position, dst);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    if (!released) {
+                        released = true;
+                        release(handle);
+                    }
+                }
+            };
+        }
+    }
+}
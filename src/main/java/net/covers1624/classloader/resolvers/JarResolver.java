@@ -0,0 +1,279 @@
+package net.covers1624.classloader.resolvers;
+
+import net.covers1624.classloader.api.IResourceResolver;
+import net.covers1624.classloader.internal.zip.ZipDirectory;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * An IResourceResolver for a single jar, which defers all I/O until a lookup needs it.
+ *
+ * Construction only records the jar's location, the jar is opened and its central
+ * directory indexed the first time a resource is requested. If the packages the jar
+ * contains are known ahead of time, lookups for any other package are answered without
+ * opening the jar at all, see {@link PackageHintCache} for persisting these between runs.
+ * Once opened, the jar's real package set replaces any hints.
+ *
+ * Only the jar's index is retained, entry data is read through a {@link JarHandlePool}, so
+ * very large classpaths don't hold a file descriptor open per jar. Resolvers use the
+ * {@link JarHandlePool#SHARED shared} pool unless given their own.
+ *
+ * Resources are served via 'jar:' URLs of the same form as a URLClassLoader's, backed by a
+ * handler bound to this resolver. Missing or unreadable jars behave as if they were empty.
+ * A JarFile is only opened if a connection's {@link JarURLConnection#getJarFile()} is called,
+ * when caches are in use it is shared until the resolver is {@link #close() closed}.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class JarResolver implements IResourceResolver, Closeable {
+
+    //End of central directory record for an archive with no entries, used in place of missing jars.
+    private static final byte[] EMPTY_ZIP = { 0x50, 0x4b, 0x05, 0x06, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+
+    private final File file;
+    private final JarHandlePool pool;
+    private final Handler handler = new Handler();
+    @Nullable
+    private volatile Set<String> packages;
+    private volatile Index index;
+
+    public JarResolver(File file) {
+        this(file, null);
+    }
+
+    /**
+     * @param file     The jar.
+     * @param packages The packages the jar is known to contain, in 'a/b/c' form, or null if unknown.
+     *                 The root package is represented by an empty string.
+     */
+    public JarResolver(File file, @Nullable Collection<String> packages) {
+        this(file, packages, JarHandlePool.SHARED);
+    }
+
+    /**
+     * @param file     The jar.
+     * @param packages The packages the jar is known to contain, or null if unknown.
+     * @param pool     The pool to read the jar through.
+     */
+    public JarResolver(File file, @Nullable Collection<String> packages, JarHandlePool pool) {
+        this.file = file.getAbsoluteFile();
+        this.pool = pool;
+        this.packages = packages != null ? new HashSet<>(packages) : null;
+    }
+
+    @Override
+    public URL findResource(String name) throws IOException {
+        if (!mayContain(name)) {
+            return null;
+        }
+        Index index = open();
+        ZipDirectory.Entry entry = index.directory.getEntry(name);
+        return entry != null ? index.getURL(entry) : null;
+    }
+
+    @Override
+    public Enumeration<URL> findResources(String name) throws IOException {
+        URL url = findResource(name);
+        return url != null ? Collections.enumeration(Collections.singletonList(url)) : Collections.emptyEnumeration();
+    }
+
+    @Override
+    public Collection<URL> getRoots() {
+        try {
+            return Collections.singletonList(file.toURI().toURL());
+        } catch (MalformedURLException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Closes the shared JarFile handed out by this jar's URL connections, if any.
+     * The resolver remains usable, entry data never depends on the JarFile.
+     */
+    @Override
+    public void close() throws IOException {
+        Index index = this.index;
+        if (index != null) {
+            index.closeJarFile();
+        }
+    }
+
+    /**
+     * @return The jar.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return If the jar has been opened.
+     */
+    public boolean isOpen() {
+        return index != null;
+    }
+
+    /**
+     * @return The packages this jar contains, either its hints or once opened its real packages.
+     * Null if the jar has not been opened and no hints were provided.
+     */
+    @Nullable
+    public Set<String> getPackages() {
+        Set<String> packages = this.packages;
+        return packages != null ? Collections.unmodifiableSet(packages) : null;
+    }
+
+    /**
+     * Gets the 'Class-Path' entries from the jar's manifest, resolved against the jar.
+     * This opens the jar if it has not been opened already.
+     *
+     * @return The class path URLs.
+     */
+    public List<URL> getClassPath() throws IOException {
+        return open().classPath;
+    }
+
+    /**
+     * Checks if the jar may contain the given resource, without opening it.
+     *
+     * @param name The resource name.
+     * @return False if the jar definitely does not contain the resource.
+     */
+    public boolean mayContain(String name) {
+        Set<String> packages = this.packages;
+        return packages == null || packages.contains(packageOf(name));
+    }
+
+    /**
+     * Gets the package of a resource name, in 'a/b/c' form.
+     * Directory names (ending in '/') are treated as a file in their parent.
+     *
+     * @param name The resource name.
+     * @return The package, an empty string for the root package.
+     */
+    public static String packageOf(String name) {
+        int end = name.endsWith("/") ? name.length() - 1 : name.length();
+        int idx = name.lastIndexOf('/', end - 1);
+        return idx == -1 ? "" : name.substring(0, idx);
+    }
+
+    private Index open() throws IOException {
+        Index index = this.index;
+        if (index == null) {
+            synchronized (this) {
+                index = this.index;
+                if (index == null) {
+                    index = new Index(file);
+                    packages = index.packages;
+                    this.index = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    private class Index {
+
+        private final ZipDirectory directory;
+        private final Set<String> packages = new HashSet<>();
+        private final List<URL> classPath = new ArrayList<>();
+        private final String base;
+        @Nullable
+        private JarFile jarFile;
+
+        private Index(File file) throws IOException {
+            base = file.toURI().toURL() + "!/";
+            ZipDirectory directory;
+            try {
+                directory = ZipDirectory.read(pool.source(file));
+            } catch (IOException e) {
+                directory = ZipDirectory.read(ByteBuffer.wrap(EMPTY_ZIP));
+            }
+            this.directory = directory;
+            for (ZipDirectory.Entry entry : directory.getEntries()) {
+                packages.add(packageOf(entry.getName()));
+            }
+            ZipDirectory.Entry manifestEntry = directory.getEntry(JarFile.MANIFEST_NAME);
+            if (manifestEntry != null) {
+                Manifest manifest = new Manifest();
+                try (InputStream is = directory.open(manifestEntry)) {
+                    manifest.read(is);
+                } catch (IOException ignored) {
+                }
+                String cp = manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH);
+                if (cp != null) {
+                    URL jarURL = file.toURI().toURL();
+                    for (String seg : cp.split(" ")) {
+                        if (!seg.isEmpty()) {
+                            classPath.add(new URL(jarURL, seg));
+                        }
+                    }
+                }
+            }
+        }
+
+        //Built per lookup, caching them would retain a URL for every entry ever requested.
+        private URL getURL(ZipDirectory.Entry entry) throws MalformedURLException {
+            return new URL("jar", "", -1, base + entry.getName(), handler);
+        }
+
+        private synchronized JarFile getJarFile() throws IOException {
+            if (jarFile == null) {
+                jarFile = new JarFile(file);
+            }
+            return jarFile;
+        }
+
+        private synchronized void closeJarFile() throws IOException {
+            if (jarFile != null) {
+                jarFile.close();
+                jarFile = null;
+            }
+        }
+    }
+
+    private class Handler extends URLStreamHandler {
+
+        @Override
+        protected URLConnection openConnection(URL u) throws IOException {
+            String spec = u.getFile();
+            int sep = spec.indexOf("!/");
+            if (sep == -1) {
+                throw new MalformedURLException("Invalid jar URL: " + u);
+            }
+            Index index = open();
+            String name = spec.substring(sep + 2);
+            ZipDirectory.Entry entry = name.isEmpty() ? null : index.directory.getEntry(name);
+            if (!name.isEmpty() && entry == null) {
+                throw new FileNotFoundException("Resource does not exist: " + u);
+            }
+            return new JarURLConnection(u) {
+                //@formatter:off
+                @Override public void connect() { connected = true; }
+                @Override public JarFile getJarFile() throws IOException { return getUseCaches() ? index.getJarFile() : new JarFile(file); }
+                @Override public InputStream getInputStream() throws IOException {
+                    if (entry == null) throw new FileNotFoundException("No entry specified: " + u);
+                    return index.directory.open(entry);
+                }
+                @Override public long getContentLengthLong() { return entry != null ? entry.getSize() : -1; }
+                @Override public int getContentLength() { return entry == null || entry.getSize() > Integer.MAX_VALUE ? -1 : (int) entry.getSize(); }
+                @Override public long getLastModified() { return entry != null ? entry.getTime() : 0; }
+                //@formatter:on
+            };
+        }
+    }
+}
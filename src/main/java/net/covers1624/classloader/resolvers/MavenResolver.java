@@ -0,0 +1,298 @@
+package net.covers1624.classloader.resolvers;
+
+import net.covers1624.classloader.Utils;
+import net.covers1624.classloader.api.IResourceResolver;
+import net.covers1624.classloader.api.IResourceResolverFactory;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.Manifest;
+
+/**
+ * Resolves the Maven artifacts listed by the 'Maven-Dependencies' manifest attribute,
+ * from the repositories listed by 'Maven-Repositories', defaulting to Maven Central.
+ * Both are separated by ';' or whitespace, artifacts are in 'group:name:version[:classifier][@extension]' form.
+ *
+ * Artifacts are kept in a content addressed cache, blobs are named by the SHA-1 of their contents,
+ * and an index maps each artifact to its blob. Missing artifacts are downloaded in parallel, and
+ * verified against the repository's '.sha1' checksum when it provides one, before being atomically
+ * moved into the cache. Once every artifact is cached, resolving performs no network access at all.
+ *
+ * Configured with system properties:
+ * <pre>
+ *   covers1624.classloader.maven_cache    The cache directory, default '~/.mcl/maven'.
+ *   covers1624.classloader.maven_threads  Maximum parallel downloads, default 8.
+ * </pre>
+ * The resolved jars are served via a {@link ClasspathResolver}, in the listed order,
+ * using the hint cache configured for {@link SimpleResolver}.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class MavenResolver implements IResourceResolverFactory {
+
+    private static final String HINT_CACHE = System.getProperty("covers1624.classloader.hint_cache");
+    private static final String CENTRAL = "https://repo1.maven.org/maven2/";
+    private static final int TIMEOUT = 30000;
+
+    private final File cacheDir;
+    private final int threads;
+
+    public MavenResolver() {
+        this(new File(System.getProperty("covers1624.classloader.maven_cache", new File(System.getProperty("user.home"), ".mcl/maven").getPath())), Integer.getInteger("covers1624.classloader.maven_threads", 8));
+    }
+
+    /**
+     * @param cacheDir The cache directory.
+     * @param threads  The maximum number of parallel downloads.
+     */
+    public MavenResolver(File cacheDir, int threads) {
+        this.cacheDir = cacheDir;
+        this.threads = Math.max(1, threads);
+    }
+
+    @Override
+    public IResourceResolver create() throws IOException {
+        for (URL url : Utils.toIterable(getClass().getClassLoader().getResources("META-INF/MANIFEST.MF"))) {
+            try (InputStream is = url.openStream()) {
+                Manifest manifest = new Manifest(is);
+                String deps = manifest.getMainAttributes().getValue("Maven-Dependencies");
+                if (deps != null) {
+                    String repos = manifest.getMainAttributes().getValue("Maven-Repositories");
+                    List<URL> repositories = new ArrayList<>();
+                    for (String repo : split(repos != null ? repos : CENTRAL)) {
+                        repositories.add(new URL(repo.endsWith("/") ? repo : repo + "/"));
+                    }
+                    List<URL> urls = new ArrayList<>();
+                    for (File file : resolve(repositories, split(deps))) {
+                        urls.add(file.toURI().toURL());
+                    }
+                    return new ClasspathResolver(urls, HINT_CACHE != null ? new PackageHintCache(new File(HINT_CACHE)) : null);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the given artifacts to files in the cache, downloading any which are missing.
+     *
+     * @param repositories The repositories to search, in order, each ending in '/'.
+     * @param artifacts    The artifacts, in 'group:name:version[:classifier][@extension]' form.
+     * @return The files, in the same order as the artifacts.
+     * @throws IOException If an artifact could not be found in any repository, or failed verification.
+     */
+    public List<File> resolve(List<URL> repositories, List<String> artifacts) throws IOException {
+        List<File> files = new ArrayList<>(Collections.nCopies(artifacts.size(), null));
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < artifacts.size(); i++) {
+            File file = findCached(artifactPath(artifacts.get(i)));
+            if (file != null) {
+                files.set(i, file);
+            } else {
+                missing.add(i);
+            }
+        }
+        if (missing.isEmpty()) {
+            return files;
+        }
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, missing.size()), r -> {
+            Thread thread = new Thread(r, "MavenResolver #" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Map<Integer, Future<File>> futures = new LinkedHashMap<>();
+            for (int i : missing) {
+                String path = artifactPath(artifacts.get(i));
+                futures.put(i, executor.submit(() -> download(repositories, path)));
+            }
+            IOException failure = null;
+            for (Map.Entry<Integer, Future<File>> entry : futures.entrySet()) {
+                try {
+                    files.set(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    IOException ex = e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+                    if (failure == null) {
+                        failure = ex;
+                    } else {
+                        failure.addSuppressed(ex);
+                    }
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException("Interrupted whilst resolving artifacts.");
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return files;
+    }
+
+    /**
+     * @return The cache directory.
+     */
+    public File getCacheDir() {
+        return cacheDir;
+    }
+
+    //Finds the blob for an artifact, if it is cached.
+    @Nullable
+    private File findCached(String path) throws IOException {
+        File index = new File(cacheDir, "index/" + path + ".sha1");
+        if (!index.exists()) {
+            return null;
+        }
+        File blob = blobFile(new String(Files.readAllBytes(index.toPath()), StandardCharsets.UTF_8).trim(), path);
+        return blob.exists() ? blob : null;
+    }
+
+    private File download(List<URL> repositories, String path) throws IOException {
+        IOException failure = null;
+        for (URL repo : repositories) {
+            try {
+                File file = download(new URL(repo, path), path);
+                if (file != null) {
+                    return file;
+                }
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        FileNotFoundException ex = new FileNotFoundException("Artifact '" + path + "' not found in any of " + repositories);
+        if (failure != null) {
+            ex.addSuppressed(failure);
+        }
+        throw ex;
+    }
+
+    //Null if the repository doesn't have the artifact.
+    @Nullable
+    private File download(URL url, String path) throws IOException {
+        InputStream in;
+        try {
+            in = open(url);
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+        File tmp = new File(cacheDir, "tmp");
+        tmp.mkdirs();
+        File tmpFile = File.createTempFile("download", ".tmp", tmp);
+        try {
+            String sha1;
+            try (DigestInputStream is = new DigestInputStream(in, sha1Digest()); OutputStream os = new FileOutputStream(tmpFile)) {
+                Utils.copy(is, os);
+                sha1 = toHex(is.getMessageDigest().digest());
+            }
+            String expected = readChecksum(new URL(url + ".sha1"));
+            if (expected != null && !expected.equalsIgnoreCase(sha1)) {
+                throw new IOException("Checksum mismatch for " + url + ", expected " + expected + " got " + sha1);
+            }
+            File blob = blobFile(sha1, path);
+            blob.getParentFile().mkdirs();
+            //Identical contents are identical blobs, racing moves are harmless.
+            Files.move(tmpFile.toPath(), blob.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            File index = new File(cacheDir, "index/" + path + ".sha1");
+            index.getParentFile().mkdirs();
+            File tmpIndex = File.createTempFile("index", ".tmp", tmp);
+            Files.write(tmpIndex.toPath(), sha1.getBytes(StandardCharsets.UTF_8));
+            Files.move(tmpIndex.toPath(), index.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return blob;
+        } finally {
+            tmpFile.delete();
+        }
+    }
+
+    //Null if the repository has no checksum for the artifact.
+    @Nullable
+    private static String readChecksum(URL url) throws IOException {
+        try (InputStream is = open(url)) {
+            String str = new String(Utils.toByteArray(is), StandardCharsets.UTF_8).trim();
+            //Some repositories append the file name.
+            int space = str.indexOf(' ');
+            return space != -1 ? str.substring(0, space) : str;
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static InputStream open(URL url) throws IOException {
+        URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(TIMEOUT);
+        connection.setReadTimeout(TIMEOUT);
+        return connection.getInputStream();
+    }
+
+    private File blobFile(String sha1, String path) {
+        String ext = path.substring(path.lastIndexOf('.'));
+        return new File(cacheDir, "blobs/" + sha1.substring(0, 2) + "/" + sha1 + ext);
+    }
+
+    /**
+     * Gets the repository relative path of an artifact.
+     *
+     * @param artifact The artifact, in 'group:name:version[:classifier][@extension]' form.
+     * @return The path, E.G: 'org/ow2/asm/asm/9.8/asm-9.8.jar'.
+     * @throws IllegalArgumentException If the artifact is malformed.
+     */
+    public static String artifactPath(String artifact) {
+        String ext = "jar";
+        int at = artifact.indexOf('@');
+        if (at != -1) {
+            ext = artifact.substring(at + 1);
+            artifact = artifact.substring(0, at);
+        }
+        String[] split = artifact.split(":");
+        if (split.length < 3 || split.length > 4) {
+            throw new IllegalArgumentException("Malformed artifact: " + artifact);
+        }
+        String group = split[0], name = split[1], version = split[2];
+        String classifier = split.length == 4 ? "-" + split[3] : "";
+        return group.replace('.', '/') + "/" + name + "/" + version + "/" + name + "-" + version + classifier + "." + ext;
+    }
+
+    private static List<String> split(String str) {
+        List<String> list = new ArrayList<>();
+        for (String s : str.split("[;\\s]+")) {
+            if (!s.isEmpty()) {
+                list.add(s);
+            }
+        }
+        return list;
+    }
+
+    private static MessageDigest sha1Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+}
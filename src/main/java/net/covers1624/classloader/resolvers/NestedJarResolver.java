@@ -0,0 +1,210 @@
+package net.covers1624.classloader.resolvers;
+
+import net.covers1624.classloader.Utils;
+import net.covers1624.classloader.api.IResourceResolver;
+import net.covers1624.classloader.internal.zip.ZipDirectory;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+/**
+ * An IResourceResolver for jars nested inside another jar, as found in 'fat' jars.
+ *
+ * The outer jar is memory mapped and its central directory read, nested jars which are
+ * STORED (uncompressed) are then indexed and served in place, directly from their offset
+ * inside the outer jar, no extraction to disk happens. Nested jars which were compressed
+ * can't be read in place, these are inflated into memory once and served from there.
+ *
+ * Resources are served via 'nestedjar:' URLs, of the form
+ * 'nestedjar:/path/to/outer.jar!/libs/inner.jar!/some/resource', backed by a handler
+ * bound to this resolver. The outer jar must be smaller than 2GB.
+ *
+ * See {@link NestedResolver} for manifest based registration through LaunchBouncer.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class NestedJarResolver implements IResourceResolver {
+
+    public static final String PROTOCOL = "nestedjar";
+
+    private final File outer;
+    private final List<NestedJar> jars = new ArrayList<>();
+    private final Map<String, List<Resource>> resources = new HashMap<>();
+    private final Handler handler = new Handler();
+
+    /**
+     * @param outer  The outer jar.
+     * @param nested The paths of the nested jars inside the outer jar, in lookup order.
+     * @throws IOException If the outer jar or any nested jar could not be read.
+     */
+    public NestedJarResolver(File outer, Collection<String> nested) throws IOException {
+        this.outer = outer.getAbsoluteFile();
+        ZipDirectory outerDir;
+        try (RandomAccessFile raf = new RandomAccessFile(outer, "r")) {
+            FileChannel channel = raf.getChannel();
+            //The mapping remains valid after the channel is closed.
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            outerDir = ZipDirectory.read(mapped);
+        }
+        for (String path : nested) {
+            ZipDirectory.Entry entry = outerDir.getEntry(path);
+            if (entry == null) {
+                throw new IOException("Nested jar '" + path + "' does not exist in " + outer);
+            }
+            ByteBuffer data;
+            if (entry.getMethod() == ZipDirectory.STORED) {
+                data = outerDir.getRawData(entry);
+            } else {
+                try (InputStream is = outerDir.open(entry)) {
+                    data = ByteBuffer.wrap(Utils.toByteArray(is));
+                }
+            }
+            NestedJar jar = new NestedJar(path, ZipDirectory.read(data));
+            jars.add(jar);
+            for (ZipDirectory.Entry e : jar.directory.getEntries()) {
+                resources.computeIfAbsent(e.getName(), k -> new ArrayList<>(1)).add(new Resource(jar, e));
+            }
+        }
+    }
+
+    /**
+     * Creates a NestedJarResolver for all jars in the outer jar whose path starts
+     * with any of the given prefixes, E.G: 'BOOT-INF/lib/'.
+     *
+     * @param outer    The outer jar.
+     * @param prefixes The prefixes.
+     * @return The NestedJarResolver.
+     * @throws IOException If the outer jar or any nested jar could not be read.
+     */
+    public static NestedJarResolver forPrefixes(File outer, Collection<String> prefixes) throws IOException {
+        List<String> nested = new ArrayList<>();
+        try (RandomAccessFile raf = new RandomAccessFile(outer, "r")) {
+            FileChannel channel = raf.getChannel();
+            ZipDirectory dir = ZipDirectory.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            for (ZipDirectory.Entry entry : dir.getEntries()) {
+                String name = entry.getName();
+                if (name.endsWith(".jar") && prefixes.stream().anyMatch(name::startsWith)) {
+                    nested.add(name);
+                }
+            }
+        }
+        return new NestedJarResolver(outer, nested);
+    }
+
+    @Override
+    public URL findResource(String name) throws IOException {
+        List<Resource> found = resources.get(name);
+        return found != null ? found.get(0).getURL() : null;
+    }
+
+    @Override
+    public Enumeration<URL> findResources(String name) throws IOException {
+        List<Resource> found = resources.get(name);
+        if (found == null) {
+            return Collections.emptyEnumeration();
+        }
+        List<URL> urls = new ArrayList<>(found.size());
+        for (Resource resource : found) {
+            urls.add(resource.getURL());
+        }
+        return Collections.enumeration(urls);
+    }
+
+    @Override
+    public Collection<String> getResourceNames() {
+        return Collections.unmodifiableSet(resources.keySet());
+    }
+
+    /**
+     * @return The nested jar paths served by this resolver, in lookup order.
+     */
+    public List<String> getNestedJars() {
+        List<String> names = new ArrayList<>();
+        for (NestedJar jar : jars) {
+            names.add(jar.path);
+        }
+        return names;
+    }
+
+    @Nullable
+    private Resource getResource(String jarPath, String name) {
+        List<Resource> found = resources.get(name);
+        if (found != null) {
+            for (Resource resource : found) {
+                if (resource.jar.path.equals(jarPath)) {
+                    return resource;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static class NestedJar {
+
+        private final String path;
+        private final ZipDirectory directory;
+
+        private NestedJar(String path, ZipDirectory directory) {
+            this.path = path;
+            this.directory = directory;
+        }
+    }
+
+    private class Resource {
+
+        private final NestedJar jar;
+        private final ZipDirectory.Entry entry;
+        private volatile URL url;
+
+        private Resource(NestedJar jar, ZipDirectory.Entry entry) {
+            this.jar = jar;
+            this.entry = entry;
+        }
+
+        private URL getURL() throws MalformedURLException {
+            URL url = this.url;
+            if (url == null) {
+                String file = outer.toURI().getRawPath() + "!/" + jar.path + "!/" + entry.getName();
+                this.url = url = new URL(PROTOCOL, "", -1, file, handler);
+            }
+            return url;
+        }
+    }
+
+    private class Handler extends URLStreamHandler {
+
+        @Override
+        protected URLConnection openConnection(URL u) throws IOException {
+            String file = u.getFile();
+            int first = file.indexOf("!/");
+            int second = first == -1 ? -1 : file.indexOf("!/", first + 2);
+            if (second == -1) {
+                throw new MalformedURLException("Invalid nested jar URL: " + u);
+            }
+            Resource resource = getResource(file.substring(first + 2, second), file.substring(second + 2));
+            if (resource == null) {
+                throw new IOException("Resource does not exist: " + u);
+            }
+            return new URLConnection(u) {
+                //@formatter:off
+                @Override public void connect() { connected = true; }
+                @Override public InputStream getInputStream() throws IOException { return resource.jar.directory.open(resource.entry); }
+                @Override public long getContentLengthLong() { return resource.entry.getSize(); }
+                @Override public int getContentLength() { return resource.entry.getSize() > Integer.MAX_VALUE ? -1 : (int) resource.entry.getSize(); }
+                @Override public long getLastModified() { return resource.entry.getTime(); }
+                //@formatter:on
+            };
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package net.covers1624.classloader.resolvers;
+
+import net.covers1624.classloader.Utils;
+import net.covers1624.classloader.api.IResourceResolver;
+import net.covers1624.classloader.api.IResourceResolverFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.jar.Manifest;
+
+/**
+ * Manifest driven {@link NestedJarResolver} factory, the nested counterpart of {@link SimpleResolver}.
+ *
+ * Looks for a 'Resolver-Nested-Path' attribute in the manifest of a jar, containing a
+ * ';' separated list of path prefixes inside that jar, E.G: 'META-INF/libs/;BOOT-INF/lib/'.
+ * All jars nested under those prefixes are resolved in place from the jar containing
+ * the manifest.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class NestedResolver implements IResourceResolverFactory {
+
+    @Override
+    public IResourceResolver create() throws IOException {
+        for (URL url : Utils.toIterable(getClass().getClassLoader().getResources("META-INF/MANIFEST.MF"))) {
+            String prefixes;
+            try (InputStream is = url.openStream()) {
+                prefixes = new Manifest(is).getMainAttributes().getValue("Resolver-Nested-Path");
+            }
+            if (prefixes != null) {
+                File outer = getJar(url);
+                if (outer == null) {
+                    throw new IOException("Resolver-Nested-Path is only supported in jars on disk. " + url);
+                }
+                return NestedJarResolver.forPrefixes(outer, Arrays.asList(prefixes.split(";")));
+            }
+        }
+        return null;
+    }
+
+    //Extracts the jar file from a 'jar:file:/some.jar!/META-INF/MANIFEST.MF' URL.
+    private static File getJar(URL manifest) {
+        if (!manifest.getProtocol().equals("jar")) {
+            return null;
+        }
+        String path = manifest.getPath();
+        int idx = path.indexOf("!/");
+        if (idx == -1) {
+            return null;
+        }
+        try {
+            URL jar = new URL(path.substring(0, idx));
+            return jar.getProtocol().equals("file") ? new File(jar.toURI()) : null;
+        } catch (IOException | URISyntaxException e) {
+            return null;
+        }
+    }
+}
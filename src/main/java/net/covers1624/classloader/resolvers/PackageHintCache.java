@@ -0,0 +1,169 @@
+package net.covers1624.classloader.resolvers;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persists the packages and 'Class-Path' of jars between runs, so {@link JarResolver}s
+ * can skip opening jars which can't contain a requested resource, even on a cold start.
+ *
+ * Entries are keyed by the jar's absolute path, and only used while the jar's size and
+ * modification time match those recorded, a changed jar is simply re-indexed when it
+ * is opened. New entries are written back by {@link #save()}, or when the JVM exits.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class PackageHintCache {
+
+    private static final int VERSION = 1;
+
+    private final File file;
+    private final Map<String, Hint> hints = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+    private boolean hookRegistered;
+
+    /**
+     * @param file The cache file, read immediately if it exists.
+     */
+    public PackageHintCache(File file) {
+        this.file = file.getAbsoluteFile();
+        if (file.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                if (in.readInt() == VERSION) {
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        String path = in.readUTF();
+                        long size = in.readLong();
+                        long modified = in.readLong();
+                        List<String> packages = readList(in);
+                        List<String> classPath = readList(in);
+                        hints.put(path, new Hint(size, modified, packages, classPath));
+                    }
+                }
+            } catch (IOException ignored) {
+                //Corrupt or truncated, start fresh.
+                hints.clear();
+            }
+        }
+    }
+
+    /**
+     * Gets the hint for a jar, if it is present and still matches the jar's size and modification time.
+     *
+     * @param jar      The jar.
+     * @param size     The current size of the jar.
+     * @param modified The current modification time of the jar.
+     * @return The hint, null if there is no matching hint.
+     */
+    @Nullable
+    public Hint get(File jar, long size, long modified) {
+        Hint hint = hints.get(jar.getAbsolutePath());
+        return hint != null && hint.size == size && hint.modified == modified ? hint : null;
+    }
+
+    /**
+     * Records a hint for a jar, to be written on the next save.
+     *
+     * @param jar       The jar.
+     * @param size      The size of the jar when it was indexed.
+     * @param modified  The modification time of the jar when it was indexed.
+     * @param packages  The packages the jar contains.
+     * @param classPath The 'Class-Path' URLs of the jar, as strings.
+     */
+    public void put(File jar, long size, long modified, Collection<String> packages, Collection<String> classPath) {
+        hints.put(jar.getAbsolutePath(), new Hint(size, modified, new ArrayList<>(packages), new ArrayList<>(classPath)));
+        dirty = true;
+        synchronized (this) {
+            if (!hookRegistered) {
+                hookRegistered = true;
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        save();
+                    } catch (IOException ignored) {
+                    }
+                }, "PackageHintCache Save"));
+            }
+        }
+    }
+
+    /**
+     * Writes the cache to disk if it has changed.
+     *
+     * @throws IOException If the cache could not be written.
+     */
+    public synchronized void save() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Failed to create directory: " + parent);
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            Map<String, Hint> snapshot = new HashMap<>(hints);
+            out.writeInt(VERSION);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, Hint> entry : snapshot.entrySet()) {
+                Hint hint = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeLong(hint.size);
+                out.writeLong(hint.modified);
+                writeList(out, hint.packages);
+                writeList(out, hint.classPath);
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static List<String> readList(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        List<String> list = new ArrayList<>(len);
+        for (int i = 0; i < len; i++) {
+            list.add(in.readUTF());
+        }
+        return list;
+    }
+
+    private static void writeList(DataOutputStream out, List<String> list) throws IOException {
+        out.writeInt(list.size());
+        for (String s : list) {
+            out.writeUTF(s);
+        }
+    }
+
+    public static final class Hint {
+
+        private final long size;
+        private final long modified;
+        private final List<String> packages;
+        private final List<String> classPath;
+
+        private Hint(long size, long modified, List<String> packages, List<String> classPath) {
+            this.size = size;
+            this.modified = modified;
+            this.packages = Collections.unmodifiableList(packages);
+            this.classPath = Collections.unmodifiableList(classPath);
+        }
+
+        /**
+         * @return The packages the jar contains, in 'a/b/c' form.
+         */
+        public List<String> getPackages() {
+            return packages;
+        }
+
+        /**
+         * @return The 'Class-Path' URLs of the jar, as strings.
+         */
+        public List<String> getClassPath() {
+            return classPath;
+        }
+    }
+}
@@ -13,10 +13,18 @@ import java.util.List;
 import java.util.jar.Manifest;
 
 /**
+ * Resolves every jar in the directories listed by the 'Resolver-Path' manifest attribute.
+ *
+ * Jars are opened lazily via a {@link ClasspathResolver}. Setting
+ * '-Dcovers1624.classloader.hint_cache=&lt;file&gt;' persists each jar's packages between
+ * runs, so later launches only open the jars a lookup could be served from.
+ *
  * Created by covers1624 on 10/11/18.
  */
 public class SimpleResolver implements IResourceResolverFactory {
 
+    private static final String HINT_CACHE = System.getProperty("covers1624.classloader.hint_cache");
+
     @Override
     public IResourceResolver create() throws IOException {
         for (URL url : Utils.toIterable(getClass().getClassLoader().getResources("META-INF/MANIFEST.MF"))) {
@@ -32,7 +40,7 @@ public class SimpleResolver implements IResourceResolverFactory {
                     } else {
                         urls.addAll(Utils.dirToURLs(new File(rel), (dir, name) -> name.endsWith(".jar")));
                     }
-                    return IResourceResolver.fromURLs(urls);
+                    return new ClasspathResolver(urls, HINT_CACHE != null ? new PackageHintCache(new File(HINT_CACHE)) : null);
                 }
             }
         }
@@ -0,0 +1,208 @@
+package net.covers1624.classloader.scan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A minimal class file parser, it reads the constant pool, the class header
+ * and class level annotations, skipping over everything else.
+ * This is significantly cheaper than defining the class, or even visiting
+ * it with ASM, as no method bodies are touched and only the handful of
+ * constant pool entries needed are ever decoded.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public final class ClassHeaderParser {
+
+    private final byte[] b;
+    private int[] cpOffsets;
+    private int pos;
+
+    private ClassHeaderParser(byte[] bytes) {
+        b = bytes;
+    }
+
+    /**
+     * Parses the header of the given class bytes.
+     *
+     * @param bytes The class bytes.
+     * @return The ClassInfo.
+     * @throws IllegalArgumentException If the bytes are not a valid class file.
+     */
+    public static ClassInfo parse(byte[] bytes) {
+        try {
+            return new ClassHeaderParser(bytes).parse();
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated class file.", e);
+        }
+    }
+
+    private ClassInfo parse() {
+        if (u4() != 0xCAFEBABE) {
+            throw new IllegalArgumentException("Not a class file.");
+        }
+        pos += 4;//minor, major.
+        readConstantPool();
+        int access = u2();
+        String name = className(u2());
+        int superIdx = u2();
+        String superName = superIdx != 0 ? className(superIdx) : null;
+        int ifaceCount = u2();
+        List<String> interfaces = ifaceCount == 0 ? Collections.emptyList() : new ArrayList<>(ifaceCount);
+        for (int i = 0; i < ifaceCount; i++) {
+            interfaces.add(className(u2()));
+        }
+        skipMembers();//Fields
+        skipMembers();//Methods
+
+        List<String> annotations = Collections.emptyList();
+        int attrCount = u2();
+        for (int i = 0; i < attrCount; i++) {
+            String attrName = utf8(u2());
+            int len = u4();
+            int end = pos + len;
+            if (attrName.equals("RuntimeVisibleAnnotations") || attrName.equals("RuntimeInvisibleAnnotations")) {
+                if (annotations.isEmpty()) {
+                    annotations = new ArrayList<>();
+                }
+                int count = u2();
+                for (int j = 0; j < count; j++) {
+                    annotations.add(descToName(utf8(u2())));
+                    skipAnnotationPairs();
+                }
+            }
+            pos = end;
+        }
+        return new ClassInfo(name, superName, interfaces, annotations, access);
+    }
+
+    private void readConstantPool() {
+        int count = u2();
+        cpOffsets = new int[count];
+        for (int i = 1; i < count; i++) {
+            cpOffsets[i] = pos;
+            int tag = b[pos++] & 0xFF;
+            switch (tag) {
+                case 1://Utf8
+                    pos += 2 + u2At(pos);
+                    break;
+                case 7://Class
+                case 8://String
+                case 16://MethodType
+                case 19://Module
+                case 20://Package
+                    pos += 2;
+                    break;
+                case 15://MethodHandle
+                    pos += 3;
+                    break;
+                case 3://Integer
+                case 4://Float
+                case 9://Fieldref
+                case 10://Methodref
+                case 11://InterfaceMethodref
+                case 12://NameAndType
+                case 17://Dynamic
+                case 18://InvokeDynamic
+                    pos += 4;
+                    break;
+                case 5://Long
+                case 6://Double
+                    pos += 8;
+                    i++;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown constant pool tag " + tag + " at index " + i);
+            }
+        }
+    }
+
+    private void skipMembers() {
+        int count = u2();
+        for (int i = 0; i < count; i++) {
+            pos += 6;//access, name, desc.
+            int attrCount = u2();
+            for (int j = 0; j < attrCount; j++) {
+                pos += 2;
+                int len = u4();
+                pos += len;
+            }
+        }
+    }
+
+    private void skipAnnotationPairs() {
+        int pairs = u2();
+        for (int i = 0; i < pairs; i++) {
+            pos += 2;
+            skipElementValue();
+        }
+    }
+
+    private void skipElementValue() {
+        int tag = b[pos++] & 0xFF;
+        switch (tag) {
+            case 'e':
+                pos += 4;
+                break;
+            case '@':
+                pos += 2;
+                skipAnnotationPairs();
+                break;
+            case '[':
+                int count = u2();
+                for (int i = 0; i < count; i++) {
+                    skipElementValue();
+                }
+                break;
+            default://Constants, Strings and Classes.
+                pos += 2;
+                break;
+        }
+    }
+
+    private String className(int idx) {
+        return utf8(u2At(cpOffsets[idx] + 1)).replace('/', '.');
+    }
+
+    //Decodes the modified UTF-8 constant at the given index.
+    private String utf8(int idx) {
+        int off = cpOffsets[idx] + 1;
+        int len = u2At(off);
+        off += 2;
+        int end = off + len;
+        char[] chars = new char[len];
+        int c = 0;
+        while (off < end) {
+            int x = b[off++] & 0xFF;
+            if (x < 0x80) {
+                chars[c++] = (char) x;
+            } else if ((x & 0xE0) == 0xC0) {
+                chars[c++] = (char) (((x & 0x1F) << 6) | (b[off++] & 0x3F));
+            } else {
+                chars[c++] = (char) (((x & 0x0F) << 12) | ((b[off++] & 0x3F) << 6) | (b[off++] & 0x3F));
+            }
+        }
+        return new String(chars, 0, c);
+    }
+
+    private static String descToName(String desc) {
+        return desc.substring(1, desc.length() - 1).replace('/', '.');
+    }
+
+    private int u2() {
+        int v = u2At(pos);
+        pos += 2;
+        return v;
+    }
+
+    private int u2At(int off) {
+        return ((b[off] & 0xFF) << 8) | (b[off + 1] & 0xFF);
+    }
+
+    private int u4() {
+        int v = ((b[pos] & 0xFF) << 24) | ((b[pos + 1] & 0xFF) << 16) | ((b[pos + 2] & 0xFF) << 8) | (b[pos + 3] & 0xFF);
+        pos += 4;
+        return v;
+    }
+}
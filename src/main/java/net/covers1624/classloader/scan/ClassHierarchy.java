@@ -0,0 +1,209 @@
+package net.covers1624.classloader.scan;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers type hierarchy questions by class name, without loading any classes.
+ *
+ * Class headers are read via a {@link Source}, parsed with {@link ClassHeaderParser}
+ * and cached, including misses. This is intended for transformers, notably ASM's
+ * ClassWriter#getCommonSuperClass when computing frames, which would otherwise load
+ * classes mid transform. Delegating to this instead is as simple as:
+ * <pre>
+ *   protected String getCommonSuperClass(String type1, String type2) {
+ *       return hierarchy.getCommonSuperClass(type1.replace('/', '.'), type2.replace('/', '.')).replace('.', '/');
+ *   }
+ * </pre>
+ * The hierarchy reflects classes as provided, before any transformation.
+ * All names are in 'java.lang.Object' form.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class ClassHierarchy {
+
+    private static final String OBJECT = "java.lang.Object";
+    //Cached in place of classes which could not be found.
+    private static final ClassInfo MISSING = new ClassInfo("", null, Collections.emptyList(), Collections.emptyList(), 0);
+
+    private final Source source;
+    private final Map<String, ClassInfo> cache = new ConcurrentHashMap<>();
+    private volatile long generation;
+
+    public ClassHierarchy(Source source) {
+        this.source = source;
+        generation = source.getGeneration();
+    }
+
+    /**
+     * Gets the header of a class.
+     *
+     * @param name The class.
+     * @return The ClassInfo, null if the class could not be found or read.
+     */
+    @Nullable
+    public ClassInfo getClassInfo(String name) {
+        long generation = source.getGeneration();
+        if (generation != this.generation) {
+            synchronized (this) {
+                if (generation != this.generation) {
+                    cache.clear();
+                    this.generation = generation;
+                }
+            }
+        }
+        ClassInfo info = cache.get(name);
+        if (info == null) {
+            info = read(name);
+            cache.put(name, info);
+        }
+        return info != MISSING ? info : null;
+    }
+
+    /**
+     * @param name The class.
+     * @return The super class, null if the class has none or could not be found.
+     */
+    @Nullable
+    public String getSuperName(String name) {
+        ClassInfo info = getClassInfo(name);
+        return info != null ? info.getSuperName() : null;
+    }
+
+    /**
+     * @param name The class.
+     * @return The directly implemented interfaces, empty if the class could not be found.
+     */
+    public List<String> getInterfaces(String name) {
+        ClassInfo info = getClassInfo(name);
+        return info != null ? info.getInterfaces() : Collections.emptyList();
+    }
+
+    /**
+     * @param name The class.
+     * @return If the class is an interface, false if the class could not be found.
+     */
+    public boolean isInterface(String name) {
+        ClassInfo info = getClassInfo(name);
+        return info != null && info.isInterface();
+    }
+
+    /**
+     * Checks if the given class is, extends or implements the given type.
+     * Equivalent to 'type.isAssignableFrom(name)' for classes.
+     *
+     * @param type The super type.
+     * @param name The class.
+     * @return If name is assignable to type.
+     */
+    public boolean isAssignableFrom(String type, String name) {
+        if (type.equals(name) || type.equals(OBJECT)) {
+            return true;
+        }
+        Deque<String> queue = new ArrayDeque<>();
+        Set<String> seen = new HashSet<>();
+        queue.add(name);
+        while (!queue.isEmpty()) {
+            ClassInfo info = getClassInfo(queue.poll());
+            if (info == null) {
+                continue;
+            }
+            String superName = info.getSuperName();
+            if (superName != null && seen.add(superName)) {
+                if (superName.equals(type)) {
+                    return true;
+                }
+                queue.add(superName);
+            }
+            for (String iFace : info.getInterfaces()) {
+                if (seen.add(iFace)) {
+                    if (iFace.equals(type)) {
+                        return true;
+                    }
+                    queue.add(iFace);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the closest common super class of two classes, with the same
+     * semantics as ASM's ClassWriter#getCommonSuperClass.
+     * Interfaces, and classes which could not be found, have 'java.lang.Object'
+     * as their common super class with anything other than themselves.
+     *
+     * @param a The first class.
+     * @param b The second class.
+     * @return The common super class.
+     */
+    public String getCommonSuperClass(String a, String b) {
+        if (isAssignableFrom(a, b)) {
+            return a;
+        }
+        if (isAssignableFrom(b, a)) {
+            return b;
+        }
+        if (isInterface(a) || isInterface(b)) {
+            return OBJECT;
+        }
+        String superName = a;
+        do {
+            superName = getSuperName(superName);
+            if (superName == null) {
+                return OBJECT;
+            }
+        } while (!isAssignableFrom(superName, b));
+        return superName;
+    }
+
+    /**
+     * Drops all cached class headers.
+     */
+    public void invalidate() {
+        cache.clear();
+    }
+
+    /**
+     * @return The number of cached class headers, including misses.
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    private ClassInfo read(String name) {
+        try {
+            byte[] bytes = source.getClassBytes(name);
+            if (bytes != null) {
+                return ClassHeaderParser.parse(bytes);
+            }
+        } catch (IOException | IllegalArgumentException ignored) {
+        }
+        return MISSING;
+    }
+
+    /**
+     * Provides the bytes of classes to a ClassHierarchy.
+     */
+    public interface Source {
+
+        /**
+         * @param name The class.
+         * @return The bytes of the class, null if it can't be found.
+         */
+        @Nullable
+        byte[] getClassBytes(String name) throws IOException;
+
+        /**
+         * Cached headers are dropped whenever this changes.
+         *
+         * @return The current generation of the source.
+         */
+        default long getGeneration() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package net.covers1624.classloader.scan;
+
+import net.covers1624.classloader.api.IResourceResolver;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * An immutable, queryable index of {@link ClassInfo}s.
+ * Produced by {@link ClassScanner}, see {@link net.covers1624.classloader.ModularClassLoader#scanClasses()}.
+ * All names are in their 'java.lang.Object' form.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public final class ClassIndex {
+
+    private final Map<String, ClassInfo> classes;
+    private final Map<String, Set<String>> annotated = new HashMap<>();
+    private final Map<String, Set<String>> subtypes = new HashMap<>();
+    private final List<IResourceResolver> unscanned;
+
+    public ClassIndex(Map<String, ClassInfo> classes) {
+        this(classes, Collections.emptyList());
+    }
+
+    /**
+     * @param classes   The classes, in resolution order.
+     * @param unscanned The resolvers which could not be scanned.
+     */
+    public ClassIndex(Map<String, ClassInfo> classes, List<IResourceResolver> unscanned) {
+        this.classes = Collections.unmodifiableMap(new LinkedHashMap<>(classes));
+        this.unscanned = Collections.unmodifiableList(new ArrayList<>(unscanned));
+        for (ClassInfo info : classes.values()) {
+            for (String ann : info.getAnnotations()) {
+                annotated.computeIfAbsent(ann, e -> new LinkedHashSet<>()).add(info.getName());
+            }
+            if (info.getSuperName() != null) {
+                subtypes.computeIfAbsent(info.getSuperName(), e -> new LinkedHashSet<>()).add(info.getName());
+            }
+            for (String iFace : info.getInterfaces()) {
+                subtypes.computeIfAbsent(iFace, e -> new LinkedHashSet<>()).add(info.getName());
+            }
+        }
+    }
+
+    /**
+     * @param name The class name.
+     * @return The ClassInfo, null if the class was not scanned.
+     */
+    @Nullable
+    public ClassInfo getClassInfo(String name) {
+        return classes.get(name);
+    }
+
+    /**
+     * Resolvers which expose neither {@link IResourceResolver#getRoots() roots} nor
+     * {@link IResourceResolver#getResourceNames() resource names} can't be scanned,
+     * classes only they provide are missing from this index.
+     *
+     * @return The resolvers which were skipped, in resolution order.
+     */
+    public List<IResourceResolver> getUnscanned() {
+        return unscanned;
+    }
+
+    /**
+     * @return All scanned classes, in resolution order.
+     */
+    public Collection<ClassInfo> getClasses() {
+        return classes.values();
+    }
+
+    /**
+     * @param annotation The annotation class name.
+     * @return All classes directly annotated with the annotation.
+     */
+    public Set<String> getAnnotatedWith(String annotation) {
+        return Collections.unmodifiableSet(annotated.getOrDefault(annotation, Collections.emptySet()));
+    }
+
+    /**
+     * @param name The class name.
+     * @return All classes which directly extend or implement the class.
+     */
+    public Set<String> getDirectSubtypes(String name) {
+        return Collections.unmodifiableSet(subtypes.getOrDefault(name, Collections.emptySet()));
+    }
+
+    /**
+     * @param name The class name.
+     * @return All classes which extend or implement the class, directly or transitively.
+     */
+    public Set<String> getAllSubtypes(String name) {
+        Set<String> found = new LinkedHashSet<>();
+        Deque<String> queue = new ArrayDeque<>();
+        queue.add(name);
+        while (!queue.isEmpty()) {
+            for (String sub : subtypes.getOrDefault(queue.poll(), Collections.emptySet())) {
+                if (found.add(sub)) {
+                    queue.add(sub);
+                }
+            }
+        }
+        return Collections.unmodifiableSet(found);
+    }
+
+    /**
+     * @return The number of scanned classes.
+     */
+    public int size() {
+        return classes.size();
+    }
+}
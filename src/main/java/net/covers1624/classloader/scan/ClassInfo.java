@@ -0,0 +1,79 @@
+package net.covers1624.classloader.scan;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+/**
+ * Header level information about a class, obtained without loading it.
+ * All names are in their 'java.lang.Object' form.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public final class ClassInfo {
+
+    private final String name;
+    @Nullable
+    private final String superName;
+    private final List<String> interfaces;
+    private final List<String> annotations;
+    private final int access;
+
+    public ClassInfo(String name, @Nullable String superName, List<String> interfaces, List<String> annotations, int access) {
+        this.name = name;
+        this.superName = superName;
+        this.interfaces = interfaces;
+        this.annotations = annotations;
+        this.access = access;
+    }
+
+    /**
+     * @return The name of the class.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The super class, null for java.lang.Object and module-info.
+     */
+    @Nullable
+    public String getSuperName() {
+        return superName;
+    }
+
+    /**
+     * @return The directly implemented interfaces.
+     */
+    public List<String> getInterfaces() {
+        return interfaces;
+    }
+
+    /**
+     * @return The class level annotations, both visible and invisible at runtime.
+     */
+    public List<String> getAnnotations() {
+        return annotations;
+    }
+
+    /**
+     * @return The access flags of the class, as per the class file.
+     */
+    public int getAccess() {
+        return access;
+    }
+
+    public boolean isInterface() {
+        return (access & Modifier.INTERFACE) != 0;
+    }
+
+    public boolean isAnnotation() {
+        return (access & 0x2000) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,349 @@
+package net.covers1624.classloader.scan;
+
+import net.covers1624.classloader.Utils;
+import net.covers1624.classloader.api.IResourceResolver;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Scans classpath roots (jars and directories) into a {@link ClassIndex}
+ * using {@link ClassHeaderParser}, nothing is ever loaded or defined.
+ *
+ * Roots are scanned in parallel. The result for each root is cached against
+ * a fingerprint of the root (path, size and modification time, or for directories
+ * the aggregate of their class files), in memory and optionally on disk, so
+ * unchanged roots are never re-read. Resolvers without roots may instead be scanned
+ * through the resources they list, see {@link #scanResolvers(List)}.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class ClassScanner {
+
+    private static final int CACHE_VERSION = 1;
+
+    private final Map<String, List<ClassInfo>> memoryCache = new ConcurrentHashMap<>();
+    @Nullable
+    private final File cacheDir;
+    private final int threads;
+
+    public ClassScanner() {
+        this(null, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param cacheDir The directory to persist scan results to, null to only cache in memory.
+     * @param threads  The maximum number of worker threads.
+     */
+    public ClassScanner(@Nullable File cacheDir, int threads) {
+        this.cacheDir = cacheDir;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Scans the given roots.
+     * If a class exists in multiple roots, the first root wins, mirroring resolution order.
+     * Roots that are not 'file:' URLs are skipped.
+     *
+     * @param roots The roots.
+     * @return The index.
+     * @throws IOException If a root could not be read.
+     */
+    public ClassIndex scan(Collection<URL> roots) throws IOException {
+        List<ScanTask> tasks = new ArrayList<>();
+        addRoots(tasks, roots, new HashSet<>());
+        return new ClassIndex(merge(run(tasks)));
+    }
+
+    /**
+     * Scans the classes provided by the given resolvers.
+     * Resolvers exposing {@link IResourceResolver#getRoots() roots} are scanned via those,
+     * as with {@link #scan(Collection)}. Otherwise, the classes listed by
+     * {@link IResourceResolver#getResourceNames()} are read through the resolver, these
+     * are not cached. Resolvers providing neither are reported by {@link ClassIndex#getUnscanned()}.
+     *
+     * @param resolvers The resolvers, in lookup order.
+     * @return The index.
+     * @throws IOException If a root or resource could not be read.
+     */
+    public ClassIndex scanResolvers(List<IResourceResolver> resolvers) throws IOException {
+        List<ScanTask> tasks = new ArrayList<>();
+        Set<File> seen = new HashSet<>();
+        List<IResourceResolver> unscanned = new ArrayList<>();
+        for (IResourceResolver resolver : resolvers) {
+            Collection<URL> roots = resolver.getRoots();
+            if (!roots.isEmpty()) {
+                addRoots(tasks, roots, seen);
+                continue;
+            }
+            Collection<String> names = resolver.getResourceNames();
+            if (names != null) {
+                tasks.add(() -> scanResolver(resolver, names));
+            } else {
+                unscanned.add(resolver);
+            }
+        }
+        return new ClassIndex(merge(run(tasks)), unscanned);
+    }
+
+    private void addRoots(List<ScanTask> tasks, Collection<URL> roots, Set<File> seen) {
+        for (URL root : roots) {
+            File file = toFile(root);
+            if (file != null && file.exists() && seen.add(file)) {
+                tasks.add(() -> scanRoot(file));
+            }
+        }
+    }
+
+    private List<List<ClassInfo>> run(List<ScanTask> tasks) throws IOException {
+        List<List<ClassInfo>> results = new ArrayList<>();
+        if (tasks.size() <= 1 || threads == 1) {
+            for (ScanTask task : tasks) {
+                results.add(task.scan());
+            }
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()), r -> {
+                Thread thread = new Thread(r, "ClassScanner");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<Future<List<ClassInfo>>> futures = new ArrayList<>();
+                for (ScanTask task : tasks) {
+                    futures.add(executor.submit(task::scan));
+                }
+                for (Future<List<ClassInfo>> future : futures) {
+                    results.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted whilst scanning.", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new RuntimeException(e.getCause());
+            } finally {
+                executor.shutdown();
+            }
+        }
+        return results;
+    }
+
+    //The first result providing a class wins, mirroring resolution order.
+    private static Map<String, ClassInfo> merge(List<List<ClassInfo>> results) {
+        Map<String, ClassInfo> classes = new LinkedHashMap<>();
+        for (List<ClassInfo> result : results) {
+            for (ClassInfo info : result) {
+                classes.putIfAbsent(info.getName(), info);
+            }
+        }
+        return classes;
+    }
+
+    private List<ClassInfo> scanRoot(File root) throws IOException {
+        String fingerprint = fingerprint(root);
+        List<ClassInfo> infos = memoryCache.get(fingerprint);
+        if (infos != null) {
+            return infos;
+        }
+        File cacheFile = cacheDir != null ? new File(cacheDir, sha1(fingerprint) + ".idx") : null;
+        if (cacheFile != null && cacheFile.exists()) {
+            infos = readCache(cacheFile, fingerprint);
+        }
+        if (infos == null) {
+            infos = root.isDirectory() ? scanDirectory(root) : scanJar(root);
+            if (cacheFile != null) {
+                writeCache(cacheFile, fingerprint, infos);
+            }
+        }
+        memoryCache.put(fingerprint, infos);
+        return infos;
+    }
+
+    private static List<ClassInfo> scanJar(File jar) throws IOException {
+        List<ClassInfo> infos = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(jar)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (isClass(entry.getName())) {
+                    try (InputStream is = zip.getInputStream(entry)) {
+                        addClass(infos, Utils.toByteArray(is));
+                    }
+                }
+            }
+        }
+        return infos;
+    }
+
+    private static List<ClassInfo> scanResolver(IResourceResolver resolver, Collection<String> names) throws IOException {
+        List<ClassInfo> infos = new ArrayList<>();
+        for (String name : names) {
+            if (isClass(name)) {
+                //May have been removed since it was listed.
+                URL url = resolver.findResource(name);
+                if (url != null) {
+                    try (InputStream is = url.openStream()) {
+                        addClass(infos, Utils.toByteArray(is));
+                    }
+                }
+            }
+        }
+        return infos;
+    }
+
+    private static List<ClassInfo> scanDirectory(File dir) throws IOException {
+        List<ClassInfo> infos = new ArrayList<>();
+        Path base = dir.toPath();
+        try (Stream<Path> stream = Files.walk(base)) {
+            for (Path path : stream.filter(e -> isClass(base.relativize(e).toString().replace(File.separatorChar, '/'))).collect(Collectors.toList())) {
+                addClass(infos, Files.readAllBytes(path));
+            }
+        }
+        return infos;
+    }
+
+    private static void addClass(List<ClassInfo> infos, byte[] bytes) {
+        try {
+            infos.add(ClassHeaderParser.parse(bytes));
+        } catch (IllegalArgumentException ignored) {
+            //Not a valid class, the ClassLoader would fail to define it anyway.
+        }
+    }
+
+    private static boolean isClass(String path) {
+        return path.endsWith(".class") && !path.endsWith("module-info.class") && !path.startsWith("META-INF/");
+    }
+
+    private static String fingerprint(File root) throws IOException {
+        if (!root.isDirectory()) {
+            return "F:" + root.getAbsolutePath() + ":" + root.length() + ":" + root.lastModified();
+        }
+        long count = 0;
+        long size = 0;
+        long modified = 0;
+        try (Stream<Path> stream = Files.walk(root.toPath())) {
+            for (Path path : (Iterable<Path>) stream::iterator) {
+                File file = path.toFile();
+                if (file.isFile() && file.getName().endsWith(".class")) {
+                    count++;
+                    size += file.length();
+                    modified = Math.max(modified, file.lastModified());
+                }
+            }
+        }
+        return "D:" + root.getAbsolutePath() + ":" + count + ":" + size + ":" + modified;
+    }
+
+    @Nullable
+    private static List<ClassInfo> readCache(File file, String fingerprint) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != CACHE_VERSION || !in.readUTF().equals(fingerprint)) {
+                return null;
+            }
+            int count = in.readInt();
+            List<ClassInfo> infos = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int access = in.readInt();
+                String name = in.readUTF();
+                String superName = in.readBoolean() ? in.readUTF() : null;
+                infos.add(new ClassInfo(name, superName, readList(in), readList(in), access));
+            }
+            return infos;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void writeCache(File file, String fingerprint, List<ClassInfo> infos) {
+        if (!file.getParentFile().exists()) {
+            file.getParentFile().mkdirs();
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(CACHE_VERSION);
+            out.writeUTF(fingerprint);
+            out.writeInt(infos.size());
+            for (ClassInfo info : infos) {
+                out.writeInt(info.getAccess());
+                out.writeUTF(info.getName());
+                out.writeBoolean(info.getSuperName() != null);
+                if (info.getSuperName() != null) {
+                    out.writeUTF(info.getSuperName());
+                }
+                writeList(out, info.getInterfaces());
+                writeList(out, info.getAnnotations());
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            return;
+        }
+        //Cache is best effort, if another scanner wrote it first, so be it.
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+        }
+    }
+
+    private static List<String> readList(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len == 0) {
+            return Collections.emptyList();
+        }
+        List<String> list = new ArrayList<>(len);
+        for (int i = 0; i < len; i++) {
+            list.add(in.readUTF());
+        }
+        return list;
+    }
+
+    private static void writeList(DataOutputStream out, List<String> list) throws IOException {
+        out.writeInt(list.size());
+        for (String s : list) {
+            out.writeUTF(s);
+        }
+    }
+
+    @Nullable
+    private static File toFile(URL url) {
+        if (!url.getProtocol().equals("file")) {
+            return null;
+        }
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return new File(url.getPath());
+        }
+    }
+
+    private static String sha1(String str) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(str.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder();
+            for (byte b : digest) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private interface ScanTask {
+
+        List<ClassInfo> scan() throws IOException;
+    }
+}
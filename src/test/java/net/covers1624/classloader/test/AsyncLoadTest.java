@@ -0,0 +1,67 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.api.IResourceResolver;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class AsyncLoadTest {
+
+    @Test
+    public void testBatch() throws Throwable {
+        SyntheticClasspath cp = new SyntheticClasspath().jars(4).classesPerJar(25).build();
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(IResourceResolver.fromURLs(cp.urls()));
+
+        List<Class<?>> classes = cl.loadClassesAsync(cp.classNames).get();
+        assertEquals(cp.classNames.size(), classes.size());
+        for (int i = 0; i < classes.size(); i++) {
+            assertEquals(cp.classNames.get(i), classes.get(i).getName());
+            assertSame(cl, classes.get(i).getClassLoader());
+            assertSame(classes.get(i), cl.loadClass(cp.classNames.get(i)));
+        }
+        //Already loaded classes complete immediately.
+        assertTrue(cl.loadClassAsync(cp.classNames.get(0)).isDone());
+    }
+
+    @Test
+    public void testDeduplicated() throws Throwable {
+        SyntheticClasspath cp = new SyntheticClasspath().jars(1).classesPerJar(2).build();
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(IResourceResolver.fromURLs(cp.urls()));
+        List<Runnable> tasks = new ArrayList<>();
+        cl.setAsyncExecutor(tasks::add);
+
+        String name = cp.classNames.get(1);
+        CompletableFuture<Class<?>> a = cl.loadClassAsync(name);
+        CompletableFuture<Class<?>> b = cl.loadClassAsync(name);
+        CompletableFuture<Class<?>> missing = cl.loadClassAsync("synth.Missing");
+        assertEquals(2, tasks.size());
+        assertFalse(a.isDone());
+
+        //Cancelling one caller's future doesn't affect the shared load.
+        b.cancel(false);
+        tasks.forEach(Runnable::run);
+        assertSame(cl, a.get().getClassLoader());
+        assertTrue(b.isCancelled());
+        try {
+            missing.get();
+            fail("Expected ClassNotFoundException.");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ClassNotFoundException);
+        }
+
+        //Completed loads are no longer pending, a new request schedules a new load.
+        cl.loadClassAsync("synth.Missing");
+        assertEquals(3, tasks.size());
+    }
+}
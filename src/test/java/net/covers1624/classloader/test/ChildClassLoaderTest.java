@@ -0,0 +1,92 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.api.IResourceResolver;
+import org.junit.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class ChildClassLoaderTest {
+
+    @Test
+    public void testChildrenShareTransformedBytes() throws Throwable {
+        File dir = writePlugin();
+        AtomicInteger transforms = new AtomicInteger();
+        ModularClassLoader root = new ModularClassLoader();
+        root.addTransformer((name, bytes) -> {
+            if (name.equals("plugin.Plugin")) {
+                transforms.incrementAndGet();
+            }
+            return bytes;
+        });
+
+        ModularClassLoader childA = root.createChild();
+        childA.addResolver(IResourceResolver.fromURLs(Collections.singletonList(dir.toURI().toURL())));
+        ModularClassLoader childB = root.createChild();
+        childB.addResolver(IResourceResolver.fromURLs(Collections.singletonList(dir.toURI().toURL())));
+
+        Class<?> a = childA.loadClass("plugin.Plugin");
+        Class<?> b = childB.loadClass("plugin.Plugin");
+        assertSame(childA, a.getClassLoader());
+        assertSame(childB, b.getClassLoader());
+        assertNotSame(a, b);
+        assertEquals(1, transforms.get());
+
+        //Classes outside the child's resolvers come from the root.
+        assertSame(childA.loadClass("net.covers1624.classloader.K2BPair"), root.loadClass("net.covers1624.classloader.K2BPair"));
+        assertNotNull(childA.getResource("net/covers1624/classloader/K2BPair.class"));
+    }
+
+    @Test
+    public void testChildIsCollected() throws Throwable {
+        File dir = writePlugin();
+        ModularClassLoader root = new ModularClassLoader();
+        WeakReference<ModularClassLoader> ref = loadInChild(root, dir);
+        for (int i = 0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(ref.get());
+    }
+
+    private static WeakReference<ModularClassLoader> loadInChild(ModularClassLoader root, File dir) throws Throwable {
+        ModularClassLoader child = root.createChild();
+        child.addResolver(IResourceResolver.fromURLs(Collections.singletonList(dir.toURI().toURL())));
+        child.loadClass("plugin.Plugin").newInstance();
+        return new WeakReference<>(child);
+    }
+
+    private static File writePlugin() throws Exception {
+        File dir = Files.createTempDirectory("mcl_child").toFile();
+        File file = new File(dir, "plugin/Plugin.class");
+        file.getParentFile().mkdirs();
+
+        ClassWriter cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER, "plugin/Plugin", null, "java/lang/Object", null);
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(1, 1);
+        mv.visitEnd();
+        cw.visitEnd();
+        try (FileOutputStream fos = new FileOutputStream(file)) {
+            fos.write(cw.toByteArray());
+        }
+        return dir;
+    }
+}
@@ -0,0 +1,78 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.api.IResourceResolver;
+import net.covers1624.classloader.scan.ClassHierarchy;
+import org.junit.Test;
+import org.objectweb.asm.ClassWriter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.*;
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class ClassHierarchyTest {
+
+    @Test
+    public void testHierarchy() throws Throwable {
+        File dir = Files.createTempDirectory("mcl_hierarchy").toFile();
+        dir.deleteOnExit();
+        File first = new File(dir, "first.jar");
+        File second = new File(dir, "second.jar");
+        first.deleteOnExit();
+        second.deleteOnExit();
+        try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(first))) {
+            write(jos, "hier/I", null, ACC_INTERFACE | ACC_ABSTRACT);
+            write(jos, "hier/C", "java/lang/Object", 0);
+            write(jos, "hier/B", "hier/C", 0);
+            write(jos, "hier/A", "hier/B", 0, "hier/I");
+            write(jos, "hier/D", "hier/C", 0);
+        }
+        try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(second))) {
+            write(jos, "hier/E", "hier/D", 0);
+        }
+
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(IResourceResolver.fromURLs(Collections.singletonList(first.toURI().toURL())));
+        ClassHierarchy hierarchy = cl.getClassHierarchy();
+
+        assertEquals("hier.B", hierarchy.getSuperName("hier.A"));
+        assertEquals(Collections.singletonList("hier.I"), hierarchy.getInterfaces("hier.A"));
+        assertTrue(hierarchy.isInterface("hier.I"));
+        assertTrue(hierarchy.isAssignableFrom("hier.I", "hier.A"));
+        assertTrue(hierarchy.isAssignableFrom("hier.C", "hier.A"));
+        assertFalse(hierarchy.isAssignableFrom("hier.D", "hier.A"));
+
+        assertEquals("hier.C", hierarchy.getCommonSuperClass("hier.A", "hier.D"));
+        assertEquals("hier.B", hierarchy.getCommonSuperClass("hier.B", "hier.A"));
+        assertEquals("hier.I", hierarchy.getCommonSuperClass("hier.I", "hier.A"));
+        assertEquals("java.lang.Object", hierarchy.getCommonSuperClass("hier.I", "hier.D"));
+        assertEquals("java.lang.Number", hierarchy.getCommonSuperClass("java.lang.Integer", "java.lang.Long"));
+
+        //Unknown until its resolver is registered.
+        assertNull(hierarchy.getClassInfo("hier.E"));
+        assertEquals("java.lang.Object", hierarchy.getCommonSuperClass("hier.E", "hier.A"));
+        cl.addResolver(IResourceResolver.fromURLs(Collections.singletonList(second.toURI().toURL())));
+        assertEquals("hier.C", hierarchy.getCommonSuperClass("hier.E", "hier.A"));
+
+        //Nothing was loaded to answer any of that.
+        assertEquals(0, cl.getMemoryStats().getDefinedClasses());
+    }
+
+    private static void write(JarOutputStream jos, String name, String superName, int access, String... interfaces) throws Throwable {
+        ClassWriter cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC | access, name, null, superName != null ? superName : "java/lang/Object", interfaces);
+        cw.visitEnd();
+        jos.putNextEntry(new JarEntry(name + ".class"));
+        jos.write(cw.toByteArray());
+        jos.closeEntry();
+    }
+}
@@ -0,0 +1,146 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.api.IResourceResolver;
+import net.covers1624.classloader.resolvers.InMemoryResolver;
+import net.covers1624.classloader.scan.ClassHeaderParser;
+import net.covers1624.classloader.scan.ClassIndex;
+import net.covers1624.classloader.scan.ClassInfo;
+import org.junit.Test;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.*;
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class ClassScannerTest {
+
+    @Test
+    public void testParseHeader() throws Throwable {
+        ModularClassLoader cl = new ModularClassLoader();
+        ClassInfo info = ClassHeaderParser.parse(cl.getResourceAsBytes("net/covers1624/classloader/ModularClassLoader.class"));
+        assertEquals("net.covers1624.classloader.ModularClassLoader", info.getName());
+        assertEquals("java.lang.ClassLoader", info.getSuperName());
+        assertFalse(info.isInterface());
+
+        info = ClassHeaderParser.parse(cl.getResourceAsBytes("net/covers1624/classloader/api/Sort.class"));
+        assertTrue(info.isAnnotation());
+        assertEquals(Collections.singletonList("java.lang.annotation.Annotation"), info.getInterfaces());
+        assertTrue(info.getAnnotations().contains("java.lang.annotation.Retention"));
+    }
+
+    @Test
+    public void testScanWithoutLoading() throws Throwable {
+        File tmp = Files.createTempDirectory("mcl_scan").toFile();
+        File jar = new File(tmp, "classes.jar");
+        try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(jar))) {
+            write(jos, "scan/Marker", genClass("scan/Marker", ACC_PUBLIC | ACC_INTERFACE | ACC_ABSTRACT | ACC_ANNOTATION, "java/lang/Object", new String[] { "java/lang/annotation/Annotation" }, false));
+            write(jos, "scan/Base", genClass("scan/Base", ACC_PUBLIC | ACC_ABSTRACT, "java/lang/Object", null, false));
+            write(jos, "scan/Impl", genClass("scan/Impl", ACC_PUBLIC, "scan/Base", new String[] { "java/lang/Runnable" }, true));
+        }
+        File dir = new File(tmp, "classes");
+        new File(dir, "scan").mkdirs();
+        try (FileOutputStream fos = new FileOutputStream(new File(dir, "scan/Sub.class"))) {
+            fos.write(genClass("scan/Sub", ACC_PUBLIC, "scan/Impl", null, true));
+        }
+
+        AtomicInteger transforms = new AtomicInteger();
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(IResourceResolver.fromURLs(Arrays.asList(jar.toURI().toURL(), dir.toURI().toURL())));
+        cl.addTransformer((name, bytes) -> {
+            transforms.incrementAndGet();
+            return bytes;
+        });
+
+        File cacheDir = new File(tmp, "cache");
+        for (int i = 0; i < 2; i++) {
+            ClassIndex index = cl.scanClasses(cacheDir);
+            assertEquals(new HashSet<>(Arrays.asList("scan.Impl", "scan.Sub")), index.getAnnotatedWith("scan.Marker"));
+            assertEquals(Collections.singleton("scan.Impl"), index.getDirectSubtypes("scan.Base"));
+            assertEquals(new HashSet<>(Arrays.asList("scan.Impl", "scan.Sub")), index.getAllSubtypes("scan.Base"));
+            assertEquals(Collections.singleton("scan.Impl"), index.getDirectSubtypes("java.lang.Runnable"));
+            assertTrue(index.getClassInfo("scan.Marker").isAnnotation());
+        }
+        //One per root, including the parent's classpath.
+        assertTrue(cacheDir.list().length >= 2);
+        assertNotNull(cl.scanClasses().getClassInfo("scan.Sub"));
+        assertEquals(0, transforms.get());
+    }
+
+    @Test
+    public void testScanWithoutRoots() throws Throwable {
+        InMemoryResolver memory = new InMemoryResolver();
+        memory.putClass("scan.mem.Base", genClass("scan/mem/Base", ACC_PUBLIC, "java/lang/Object", null, false));
+        memory.put("scan/mem/readme.txt", new byte[0]);
+        InMemoryResolver childMemory = new InMemoryResolver();
+        childMemory.putClass("scan.mem.Impl", genClass("scan/mem/Impl", ACC_PUBLIC, "scan/mem/Base", null, true));
+        //Neither roots nor resource names.
+        IResourceResolver opaque = new IResourceResolver() {
+            @Override
+            public URL findResource(String name) throws IOException {
+                return null;
+            }
+
+            @Override
+            public Enumeration<URL> findResources(String name) throws IOException {
+                return Collections.emptyEnumeration();
+            }
+        };
+
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(memory);
+        ModularClassLoader child = cl.createChild();
+        child.addResolver(childMemory);
+        child.addResolver(IResourceResolver.slow(opaque));
+
+        ClassIndex index = child.scanClasses();
+        assertEquals(Collections.singleton("scan.mem.Impl"), index.getDirectSubtypes("scan.mem.Base"));
+        assertEquals(Collections.singleton("scan.mem.Impl"), index.getAnnotatedWith("scan.Marker"));
+        assertNotNull(index.getClassInfo("scan.mem.Base"));
+        //The parent's classpath is still scanned through its roots.
+        assertNotNull(index.getClassInfo(ModularClassLoader.class.getName()));
+        assertEquals(1, index.getUnscanned().size());
+        assertNull(index.getUnscanned().get(0).getResourceNames());
+    }
+
+    private static void write(JarOutputStream jos, String name, byte[] bytes) throws Throwable {
+        jos.putNextEntry(new JarEntry(name + ".class"));
+        jos.write(bytes);
+        jos.closeEntry();
+    }
+
+    private static byte[] genClass(String name, int access, String superName, String[] interfaces, boolean marker) {
+        ClassWriter cw = new ClassWriter(0);
+        cw.visit(V1_8, access, name, null, superName, interfaces);
+        if (marker) {
+            AnnotationVisitor av = cw.visitAnnotation("Lscan/Marker;", true);
+            av.visit("value", "string");
+            av.visitEnum("priority", "Lnet/covers1624/classloader/api/Priority;", "HIGH");
+            AnnotationVisitor arr = av.visitArray("numbers");
+            arr.visit(null, 1);
+            arr.visit(null, 2L);
+            arr.visitEnd();
+            av.visitAnnotation("nested", "Lscan/Other;").visitEnd();
+            av.visitEnd();
+        }
+        cw.visitField(ACC_PUBLIC, "field", "J", null, 5L).visitEnd();
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+}
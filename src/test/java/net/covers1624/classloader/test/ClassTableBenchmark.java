@@ -0,0 +1,91 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.internal.ClassTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Compares {@link ClassTable} against ConcurrentHashMap, as used for ModularClassLoader's
+ * class caches, measuring retained heap per entry and lookup latency.
+ *
+ * Keys are generated class names, each map retains its own copy of every key as a
+ * loader's cache would, values are shared between runs so only the map itself is measured.
+ *
+ * Run via 'gradlew classTableBenchmark', configured with system properties:
+ * <pre>
+ *   covers1624.classloader.table.entries  Entries per map, default 150000.
+ *   covers1624.classloader.table.rounds   Lookup rounds over all entries, default 20.
+ * </pre>
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class ClassTableBenchmark {
+
+    private static final int ENTRIES = Integer.getInteger("covers1624.classloader.table.entries", 150000);
+    private static final int ROUNDS = Integer.getInteger("covers1624.classloader.table.rounds", 20);
+
+    public static void main(String[] args) {
+        List<String> names = new ArrayList<>(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++) {
+            names.add("net.example.module" + (i % 200) + ".pkg" + (i % 37) + ".GeneratedClass" + i);
+        }
+        Object value = new Object();
+
+        System.out.println(String.format(Locale.ROOT, "ClassTable: %d entries, %d lookup rounds", ENTRIES, ROUNDS));
+        for (int pass = 0; pass < 2; pass++) {
+            boolean report = pass == 1;
+            run("ConcurrentHashMap", ConcurrentHashMap::new, names, value, report);
+            run("ClassTable", ClassTable::new, names, value, report);
+        }
+    }
+
+    private static void run(String label, Supplier<Map<String, Object>> factory, List<String> names, Object value, boolean report) {
+        //Lookups use the original names, as loadClass would be called with a different String instance.
+        List<String> lookups = new ArrayList<>(names);
+
+        long before = usedHeap();
+        Map<String, Object> map = factory.get();
+        for (String name : names) {
+            map.put(new String(name), value);
+        }
+        long retained = usedHeap() - before;
+
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int r = 0; r < ROUNDS; r++) {
+            for (int i = 0; i < lookups.size(); i++) {
+                if (map.get(lookups.get(i)) != null) {
+                    sink++;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink != (long) ROUNDS * names.size()) {
+            throw new IllegalStateException("Lookup missed.");
+        }
+        if (report) {
+            System.out.println(String.format(Locale.ROOT, "  %-18s retained %8.1f KiB (%5.1f bytes/entry)  lookup %6.1f ns/op", label, retained / 1024D, (double) retained / names.size(), (double) elapsed / sink));
+        }
+        //Keep the map reachable until measured.
+        if (map.size() != names.size()) {
+            throw new IllegalStateException("Size mismatch.");
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ignored) {
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
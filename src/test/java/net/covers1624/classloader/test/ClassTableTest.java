@@ -0,0 +1,149 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.internal.ClassTable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class ClassTableTest {
+
+    @Test
+    public void testPutGet() {
+        ClassTable<Integer> table = new ClassTable<>();
+        for (int i = 0; i < 1000; i++) {
+            assertNull(table.put("a.b.C" + i, i));
+        }
+        assertEquals(1000, table.size());
+        assertTrue(table.capacity() >= 1000);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), table.get("a.b.C" + i));
+        }
+        assertNull(table.get("a.b.C1000"));
+        assertNull(table.get(new Object()));
+
+        assertEquals(Integer.valueOf(5), table.put("a.b.C5", 50));
+        assertEquals(Integer.valueOf(50), table.get("a.b.C5"));
+        assertEquals(1000, table.size());
+        assertEquals(1000, table.entrySet().size());
+
+        table.clear();
+        assertEquals(0, table.size());
+        assertNull(table.get("a.b.C1"));
+    }
+
+    @Test
+    public void testRemove() {
+        ClassTable<Integer> table = new ClassTable<>();
+        //"Aa" and "BB" share a hash code, removing the first must not hide the second.
+        table.put("Aa", 1);
+        table.put("BB", 2);
+        assertEquals(Integer.valueOf(1), table.remove("Aa"));
+        assertNull(table.remove("Aa"));
+        assertNull(table.get("Aa"));
+        assertEquals(Integer.valueOf(2), table.get("BB"));
+        assertEquals(1, table.size());
+        assertNull(table.put("Aa", 3));
+        assertEquals(Integer.valueOf(3), table.get("Aa"));
+        assertEquals(2, table.size());
+
+        //Churn doesn't grow the table, tombstones are dropped when rebuilt.
+        table.clear();
+        for (int i = 0; i < 10000; i++) {
+            table.put("a.b.C" + i, i);
+            if (i >= 4) {
+                assertEquals(Integer.valueOf(i - 4), table.remove("a.b.C" + (i - 4)));
+            }
+        }
+        assertEquals(4, table.size());
+        assertEquals(16, table.capacity());
+        for (int i = 9996; i < 10000; i++) {
+            assertEquals(Integer.valueOf(i), table.get("a.b.C" + i));
+        }
+    }
+
+    @Test
+    public void testViews() {
+        ClassTable<Integer> table = new ClassTable<>();
+        for (int i = 0; i < 100; i++) {
+            table.put("a.b.C" + i, i);
+        }
+        table.remove("a.b.C50");
+        assertEquals(99, table.keySet().size());
+        assertFalse(table.keySet().contains("a.b.C50"));
+        assertTrue(table.keySet().contains("a.b.C51"));
+
+        int sum = 0;
+        for (int value : table.values()) {
+            sum += value;
+        }
+        assertEquals(4950 - 50, sum);
+
+        //Removal through a view removes from the table.
+        table.values().removeIf(e -> e % 2 == 0);
+        assertEquals(50, table.size());
+        for (Map.Entry<String, Integer> entry : table.entrySet()) {
+            assertEquals(1, entry.getValue() % 2);
+            assertEquals(entry.getValue(), table.get(entry.getKey()));
+        }
+        assertEquals(50, table.entrySet().size());
+    }
+
+    @Test
+    public void testCollidingHashes() {
+        //"Aa" and "BB" share a hash code.
+        ClassTable<String> table = new ClassTable<>();
+        table.put("Aa", "first");
+        table.put("BB", "second");
+        assertEquals("first", table.get("Aa"));
+        assertEquals("second", table.get("BB"));
+    }
+
+    @Test
+    public void testConcurrentReads() throws Throwable {
+        ClassTable<String> table = new ClassTable<>();
+        int count = 50000;
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        for (int i = 0; i < count; i += 97) {
+                            String value = table.get("n" + i);
+                            if (value != null && !value.equals("v" + i)) {
+                                throw new AssertionError("Wrong value for n" + i + ": " + value);
+                            }
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            thread.start();
+            readers.add(thread);
+        }
+        for (int i = 0; i < count; i++) {
+            table.put("n" + i, "v" + i);
+            //Once written, always visible to all readers.
+            assertEquals("v" + i, table.get("n" + i));
+        }
+        done.set(true);
+        for (Thread thread : readers) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(count, table.size());
+    }
+}
@@ -0,0 +1,178 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.resolvers.ClasspathResolver;
+import net.covers1624.classloader.resolvers.JarResolver;
+import net.covers1624.classloader.resolvers.PackageHintCache;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class ClasspathResolverTest {
+
+    @Test
+    public void testLazyOpen() throws Throwable {
+        SyntheticClasspath cp = new SyntheticClasspath().jars(5).classesPerJar(4).duplicateResources(1).build();
+        ClasspathResolver resolver = new ClasspathResolver(cp.urls());
+        assertEquals(0, resolver.getOpenedJars());
+
+        //Without hints, jars are opened in order until the resource is found.
+        URL url = resolver.findResource(cp.classNames.get(9).replace('.', '/') + ".class");
+        assertNotNull(url);
+        assertEquals("jar", url.getProtocol());
+        assertEquals(3, resolver.getOpenedJars());
+        assertTrue(url.openConnection() instanceof JarURLConnection);
+
+        String res = cp.resourceNames.get(0);
+        assertEquals("jar 0 " + res, read(resolver.findResource(res)));
+        List<URL> all = Collections.list(resolver.findResources(res));
+        assertEquals(5, all.size());
+        assertEquals("jar 4 " + res, read(all.get(4)));
+
+        ModularClassLoader cl = new ModularClassLoader().createChild();
+        cl.addResolver(resolver);
+        for (String name : cp.classNames) {
+            assertSame(cl, cl.loadClass(name).getClassLoader());
+        }
+    }
+
+    @Test
+    public void testHintCache() throws Throwable {
+        SyntheticClasspath cp = new SyntheticClasspath().jars(5).classesPerJar(4).build();
+        File cacheFile = new File(cp.dir, "hints.bin");
+
+        PackageHintCache cache = new PackageHintCache(cacheFile);
+        ClasspathResolver first = new ClasspathResolver(cp.urls(), cache);
+        assertNull(first.findResource("missing/Missing.class"));
+        assertEquals(5, first.getOpenedJars());
+        cache.save();
+
+        //A new run only opens the jar which could contain the class.
+        ClasspathResolver second = new ClasspathResolver(cp.urls(), new PackageHintCache(cacheFile));
+        assertNull(second.findResource("missing/Missing.class"));
+        assertEquals(0, second.getOpenedJars());
+        assertNotNull(second.findResource(cp.classNames.get(13).replace('.', '/') + ".class"));
+        assertEquals(1, second.getOpenedJars());
+    }
+
+    @Test
+    public void testClassPathAndMissing() throws Throwable {
+        SyntheticClasspath cp = new SyntheticClasspath().jars(1).classesPerJar(2).build();
+        File main = new File(cp.dir, "main.jar");
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, "synth_0.jar");
+        //A jar of just the manifest.
+        try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(main), manifest)) {
+            jos.finish();
+        }
+        File missing = new File(cp.dir, "missing.jar");
+
+        ClasspathResolver resolver = new ClasspathResolver(Arrays.asList(missing.toURI().toURL(), main.toURI().toURL()));
+        assertNotNull(resolver.findResource(cp.classNames.get(1).replace('.', '/') + ".class"));
+        assertEquals(3, resolver.getRoots().size());
+
+        JarResolver jar = new JarResolver(missing);
+        assertNull(jar.findResource("a/B.class"));
+        assertTrue(jar.isOpen());
+        assertEquals(Collections.emptySet(), jar.getPackages());
+    }
+
+    @Test
+    public void testPackageOf() {
+        assertEquals("", JarResolver.packageOf("A.class"));
+        assertEquals("a/b", JarResolver.packageOf("a/b/C.class"));
+        assertEquals("a", JarResolver.packageOf("a/b/"));
+        assertEquals("", JarResolver.packageOf("a/"));
+    }
+
+    private static String read(URL url) throws Throwable {
+        try (InputStream is = url.openStream()) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            byte[] buf = new byte[256];
+            int len;
+            while ((len = is.read(buf)) != -1) {
+                bos.write(buf, 0, len);
+            }
+            return new String(bos.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testClassPathOrder() throws Throwable {
+        File dir = Files.createTempDirectory("mcl_cp_order").toFile();
+        //main -> dep -> nested, each, and the later 'other', providing 'dup.txt'.
+        File main = writeJar(dir, "main.jar", "dep.jar", "main");
+        writeJar(dir, "dep.jar", "nested.jar", "dep");
+        writeJar(dir, "nested.jar", null, "nested");
+        File other = writeJar(dir, "other.jar", null, "other");
+        List<URL> urls = Arrays.asList(main.toURI().toURL(), other.toURI().toURL());
+
+        File cacheFile = new File(dir, "hints.bin");
+        PackageHintCache cache = new PackageHintCache(cacheFile);
+        ClasspathResolver first = new ClasspathResolver(urls, cache);
+        List<URL> expected;
+        try (URLClassLoader ucl = new URLClassLoader(urls.toArray(new URL[0]), null)) {
+            expected = Collections.list(ucl.getResources("dup.txt"));
+        }
+        assertEquals(4, expected.size());
+        //The Class-Path of main is searched before other, as URLClassLoader would.
+        assertEquals(read(expected.get(1)), read(first.findResource("dep.txt")));
+        assertEquals(Arrays.asList("main", "dep", "nested", "other"), readAll(first, "dup.txt"));
+        cache.save();
+
+        //The same order when the Class-Path is known up front from the hints.
+        ClasspathResolver second = new ClasspathResolver(urls, new PackageHintCache(cacheFile));
+        assertEquals(Arrays.asList("main", "dep", "nested", "other"), readAll(second, "dup.txt"));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(read(expected.get(i)), readAll(second, "dup.txt").get(i));
+        }
+    }
+
+    private static List<String> readAll(ClasspathResolver resolver, String name) throws Throwable {
+        List<String> contents = new ArrayList<>();
+        for (URL url : Collections.list(resolver.findResources(name))) {
+            contents.add(read(url));
+        }
+        return contents;
+    }
+
+    //A jar with a 'dup.txt' and '<id>.txt', both containing the id.
+    private static File writeJar(File dir, String name, String classPath, String id) throws Throwable {
+        File file = new File(dir, name);
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (classPath != null) {
+            manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, classPath);
+        }
+        try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(file), manifest)) {
+            for (String entry : new String[] { "dup.txt", id + ".txt" }) {
+                jos.putNextEntry(new ZipEntry(entry));
+                jos.write(id.getBytes(StandardCharsets.UTF_8));
+                jos.closeEntry();
+            }
+        }
+        return file;
+    }
+}
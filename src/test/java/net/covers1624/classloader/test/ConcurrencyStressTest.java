@@ -0,0 +1,196 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.api.IClassTransformer;
+import net.covers1624.classloader.api.IResourceResolver;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Hammers {@link ModularClassLoader#loadClass} from many threads over a {@link SyntheticClasspath},
+ * with transformers that load another class of the same jar whilst transforming.
+ *
+ * For each thread count from 1 to the maximum, every thread loads the whole classpath in its own
+ * random order through a fresh loader. Each class must be transformed, and so defined, exactly once,
+ * every thread must see the same Class instance, every class must remain cached afterwards, and
+ * the run must finish without deadlocking. Running this class's main method, via
+ * 'gradlew concurrencyBenchmark', additionally prints the time taken and speedup over
+ * a single thread for each thread count.
+ *
+ * Configured with system properties:
+ * <pre>
+ *   covers1624.classloader.stress.threads  Maximum thread count, default the number of processors, at least 4.
+ *   covers1624.classloader.stress.classes  Classes per jar, default 100.
+ * </pre>
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class ConcurrencyStressTest {
+
+    private static final int THREADS = Integer.getInteger("covers1624.classloader.stress.threads", Math.max(4, Runtime.getRuntime().availableProcessors()));
+    private static final int CLASSES = Integer.getInteger("covers1624.classloader.stress.classes", 100);
+    private static final int JARS = 8;
+    private static final long TIMEOUT = 60000;
+
+    @Test
+    public void testParallelLoad() throws Throwable {
+        SyntheticClasspath cp = new SyntheticClasspath().jars(JARS).classesPerJar(CLASSES).build();
+        Map<String, String> deps = dependencies(cp);
+        for (int threads : threadCounts()) {
+            run(cp, deps, threads);
+        }
+    }
+
+    /**
+     * Runs the stress test, printing the time taken and speedup for each thread count.
+     * Run via 'gradlew concurrencyBenchmark'.
+     */
+    public static void main(String[] args) throws Throwable {
+        SyntheticClasspath cp = new SyntheticClasspath().jars(JARS).classesPerJar(CLASSES).build();
+        Map<String, String> deps = dependencies(cp);
+
+        System.out.println(String.format(Locale.ROOT, "Concurrency stress: %d classes, nested loading transformers", cp.classNames.size()));
+        System.out.println(String.format(Locale.ROOT, "  %-8s %10s %14s %8s", "threads", "time ms", "classes/s", "speedup"));
+        //Warm up, so the single threaded baseline isn't dominated by JIT compilation.
+        run(cp, deps, THREADS);
+        long base = 0;
+        for (int threads : threadCounts()) {
+            long elapsed = run(cp, deps, threads);
+            if (threads == 1) {
+                base = elapsed;
+            }
+            System.out.println(String.format(Locale.ROOT, "  %-8d %10.1f %14.0f %7.2fx", threads, elapsed / 1e6, cp.classNames.size() / (elapsed / 1e9), (double) base / elapsed));
+        }
+    }
+
+    //Each class loads the previous class of its jar whilst being transformed, acyclic, so no load can deadlock another.
+    private static Map<String, String> dependencies(SyntheticClasspath cp) {
+        Map<String, String> deps = new HashMap<>();
+        for (int i = 0; i < cp.classNames.size(); i++) {
+            if (i % CLASSES != 0) {
+                deps.put(cp.classNames.get(i), cp.classNames.get(i - 1));
+            }
+        }
+        return deps;
+    }
+
+    //Powers of two up to the maximum, then the maximum.
+    private static List<Integer> threadCounts() {
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < THREADS; threads *= 2) {
+            counts.add(threads);
+        }
+        counts.add(THREADS);
+        return counts;
+    }
+
+    //Returns the time taken for all threads to load the classpath, in nanoseconds.
+    private static long run(SyntheticClasspath cp, Map<String, String> deps, int threadCount) throws Throwable {
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(IResourceResolver.fromURLs(cp.urls()));
+        NestedLoadTransformer first = new NestedLoadTransformer(cl, deps);
+        NestedLoadTransformer second = new NestedLoadTransformer(cl, deps);
+        cl.addTransformer(first);
+        cl.addTransformer(second);
+
+        Map<String, Class<?>> seen = new ConcurrentHashMap<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            List<String> names = new ArrayList<>(cp.classNames);
+            Collections.shuffle(names, new Random(t));
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (String name : names) {
+                        Class<?> clazz = cl.loadClass(name);
+                        Class<?> existing = seen.putIfAbsent(name, clazz);
+                        if (existing != null && existing != clazz) {
+                            throw new AssertionError("Multiple classes defined for " + name);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "Stress #" + t);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        for (Thread thread : threads) {
+            thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            if (thread.isAlive()) {
+                fail("Deadlock with " + threadCount + " threads:\n" + dumpThreads());
+            }
+        }
+        long elapsed = System.nanoTime() - startNanos;
+        if (failure.get() != null) {
+            throw new AssertionError("Failed with " + threadCount + " threads.", failure.get());
+        }
+
+        for (String name : cp.classNames) {
+            assertEquals(name, 1, first.counts.get(name).get());
+            assertEquals(name, 1, second.counts.get(name).get());
+            Class<?> clazz = seen.get(name);
+            assertSame(cl, clazz.getClassLoader());
+            assertSame(clazz, cl.loadClass(name));
+        }
+        assertEquals(cp.classNames.size(), first.counts.size());
+        assertEquals(cp.classNames.size(), cl.getMemoryStats().getDefinedClasses());
+        assertTrue(cl.getMemoryStats().getCachedClasses() >= cp.classNames.size());
+        return elapsed;
+    }
+
+    private static String dumpThreads() {
+        StringBuilder builder = new StringBuilder();
+        for (ThreadInfo info : ManagementFactory.getThreadMXBean().dumpAllThreads(true, true)) {
+            if (info.getThreadName().startsWith("Stress #")) {
+                builder.append(info);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static class NestedLoadTransformer implements IClassTransformer {
+
+        private final ClassLoader cl;
+        private final Map<String, String> deps;
+        private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+        private NestedLoadTransformer(ClassLoader cl, Map<String, String> deps) {
+            this.cl = cl;
+            this.deps = deps;
+        }
+
+        @Override
+        public byte[] transform(String name, byte[] bytes) {
+            if (bytes == null || !name.startsWith("synth.")) {
+                return bytes;
+            }
+            counts.computeIfAbsent(name, e -> new AtomicInteger()).incrementAndGet();
+            String dep = deps.get(name);
+            if (dep != null) {
+                try {
+                    Class.forName(dep, false, cl);
+                } catch (ClassNotFoundException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            return bytes;
+        }
+    }
+}
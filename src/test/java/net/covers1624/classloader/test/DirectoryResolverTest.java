@@ -0,0 +1,67 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.resolvers.DirectoryResolver;
+import org.junit.Test;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class DirectoryResolverTest {
+
+    @Test
+    public void testLookups() throws Throwable {
+        Path root = Files.createTempDirectory("mcl_dir");
+        Files.createDirectories(root.resolve("a/b"));
+        Files.write(root.resolve("a/b/res.txt"), "hello".getBytes(StandardCharsets.UTF_8));
+
+        DirectoryResolver resolver = new DirectoryResolver(root, 0);
+        URL url = resolver.findResource("a/b/res.txt");
+        assertNotNull(url);
+        assertEquals(root.resolve("a/b/res.txt").toUri().toURL(), url);
+        assertNull(resolver.findResource("a/b/missing.txt"));
+        assertNull(resolver.findResource("x/y/missing.txt"));
+        assertNull(resolver.findResource("a/b"));
+        assertNotNull(resolver.findResource("a/b/"));
+        assertNull(resolver.findResource("a/../a/b/res.txt"));
+        assertNull(resolver.findResource("/a/b/res.txt"));
+
+        //Deletions are picked up by the attribute check on hit.
+        Files.delete(root.resolve("a/b/res.txt"));
+        assertNull(resolver.findResource("a/b/res.txt"));
+    }
+
+    @Test
+    public void testNoRefresh() throws Throwable {
+        Path root = Files.createTempDirectory("mcl_dir");
+        DirectoryResolver resolver = new DirectoryResolver(root, -1);
+        assertNull(resolver.findResource("new.txt"));
+
+        //Misses are served from the listing until invalidated.
+        Files.write(root.resolve("new.txt"), new byte[] { 1 });
+        assertNull(resolver.findResource("new.txt"));
+        resolver.invalidate();
+        assertNotNull(resolver.findResource("new.txt"));
+    }
+
+    @Test
+    public void testLoadClass() throws Throwable {
+        Path root = Files.createTempDirectory("mcl_dir");
+        ModularClassLoader cl = new ModularClassLoader();
+        Path file = root.resolve("net/covers1624/classloader/api/EnvVarList.class");
+        Files.createDirectories(file.getParent());
+        Files.write(file, cl.getResourceAsBytes("net/covers1624/classloader/api/EnvVarList.class"));
+
+        ModularClassLoader child = cl.createChild();
+        child.addResolver(new DirectoryResolver(root));
+        Class<?> clazz = child.loadClass("net.covers1624.classloader.api.EnvVarList");
+        assertSame(child, clazz.getClassLoader());
+    }
+}
@@ -0,0 +1,138 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.Utils;
+import net.covers1624.classloader.resolvers.InMemoryResolver;
+import net.covers1624.classloader.scan.ClassHierarchy;
+import org.junit.Test;
+import org.objectweb.asm.ClassWriter;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class InMemoryResolverTest {
+
+    @Test
+    public void testGeneratedClasses() throws Throwable {
+        Map<String, byte[]> classes = generate("mem.kept", 50);
+        InMemoryResolver resolver = new InMemoryResolver();
+        resolver.putClasses(classes);
+        resolver.put("mem/kept/data.txt", new byte[] { 1, 2, 3 });
+        assertEquals(51, resolver.size());
+
+        ModularClassLoader cl = new ModularClassLoader();
+        AtomicLong transformed = new AtomicLong();
+        cl.addTransformer(new SyntheticClasspath.PassThroughTransformer(transformed));
+        cl.addResolver(resolver);
+        for (String name : classes.keySet()) {
+            assertSame(cl, cl.loadClass(name).getClassLoader());
+        }
+        assertEquals(50, transformed.get());
+
+        URL url = cl.getResource("mem/kept/G0.class");
+        assertEquals("mcl-mem", url.getProtocol());
+        try (InputStream is = url.openStream()) {
+            assertArrayEquals(classes.get("mem.kept.G0"), Utils.toByteArray(is));
+        }
+        assertArrayEquals(new byte[] { 1, 2, 3 }, cl.getResourceAsBytes("mem/kept/data.txt"));
+        assertNull(cl.getResource("mem/kept/missing.txt"));
+        assertEquals(51, resolver.size());
+    }
+
+    @Test
+    public void testReleaseDefined() throws Throwable {
+        Map<String, byte[]> classes = generate("mem.released", 20);
+        InMemoryResolver resolver = new InMemoryResolver(true);
+        resolver.putClasses(classes);
+        resolver.put("mem/released/data.txt", new byte[] { 1 });
+
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(resolver);
+        URL url = cl.getResource("mem/released/G0.class");
+        Class<?> clazz = cl.loadClass("mem.released.G0");
+        assertEquals(20, resolver.size());
+        assertNull(cl.getResource("mem/released/G0.class"));
+        try {
+            url.openStream();
+            fail("Released bytes still served.");
+        } catch (java.io.FileNotFoundException ignored) {
+        }
+        //The loader still has the class, and its bytes.
+        assertSame(clazz, cl.loadClass("mem.released.G0"));
+        assertNotNull(cl.getClassBytes("mem.released.G0"));
+
+        for (String name : classes.keySet()) {
+            cl.loadClass(name);
+        }
+        assertEquals(1, resolver.size());
+        assertEquals(1, resolver.getRetainedBytes());
+    }
+
+    @Test
+    public void testReleasedClassHierarchy() throws Throwable {
+        InMemoryResolver resolver = new InMemoryResolver(true);
+        resolver.putClass("mem.tree.Base", generate("mem.tree.Base", "java.lang.Object"));
+        resolver.putClass("mem.tree.A", generate("mem.tree.A", "mem.tree.Base"));
+        resolver.putClass("mem.tree.B", generate("mem.tree.B", "mem.tree.Base"));
+
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(resolver);
+        cl.loadClass("mem.tree.A");
+        cl.loadClass("mem.tree.B");
+        assertEquals(0, resolver.size());
+
+        //Headers come from the defined bytes once released.
+        ClassHierarchy hierarchy = cl.getClassHierarchy();
+        assertEquals("mem.tree.Base", hierarchy.getSuperName("mem.tree.A"));
+        assertEquals("mem.tree.Base", hierarchy.getCommonSuperClass("mem.tree.A", "mem.tree.B"));
+    }
+
+    @Test
+    public void testSharedNotReleased() throws Throwable {
+        Map<String, byte[]> classes = generate("mem.shared", 5);
+        InMemoryResolver resolver = new InMemoryResolver(true);
+        resolver.putClasses(classes);
+        ModularClassLoader a = new ModularClassLoader();
+        ModularClassLoader b = new ModularClassLoader();
+        a.addResolver(resolver);
+        b.addResolver(resolver);
+        for (String name : classes.keySet()) {
+            assertSame(a, a.loadClass(name).getClassLoader());
+            assertSame(b, b.loadClass(name).getClassLoader());
+        }
+        assertEquals(5, resolver.size());
+
+        //Children only hold defined bytes weakly.
+        InMemoryResolver childResolver = new InMemoryResolver(true);
+        childResolver.putClasses(generate("mem.child", 5));
+        ModularClassLoader child = new ModularClassLoader().createChild();
+        child.addResolver(childResolver);
+        assertSame(child, child.loadClass("mem.child.G0").getClassLoader());
+        assertEquals(5, childResolver.size());
+    }
+
+    private static Map<String, byte[]> generate(String pkg, int count) {
+        Map<String, byte[]> classes = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String name = pkg + ".G" + i;
+            classes.put(name, generate(name, "java.lang.Object"));
+        }
+        return classes;
+    }
+
+    private static byte[] generate(String name, String superName) {
+        ClassWriter cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER, name.replace('.', '/'), null, superName.replace('.', '/'), null);
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+}
@@ -0,0 +1,180 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.resolvers.ClasspathResolver;
+import net.covers1624.classloader.resolvers.JarHandlePool;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.jar.JarFile;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class JarHandlePoolTest {
+
+    @Test
+    public void testBounded() throws Throwable {
+        SyntheticClasspath cp = new SyntheticClasspath().jars(6).classesPerJar(2).duplicateResources(1).build();
+        JarHandlePool pool = new JarHandlePool(2);
+        ClasspathResolver resolver = new ClasspathResolver(cp.urls(), null, pool);
+
+        String res = cp.resourceNames.get(0);
+        List<URL> urls = Collections.list(resolver.findResources(res));
+        assertEquals(6, urls.size());
+        assertTrue(pool.getOpenCount() <= 2);
+        assertTrue(pool.getEvictions() >= 4);
+
+        //Every jar's data is still readable, evicted jars are reopened transparently.
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < urls.size(); i++) {
+                assertEquals("jar " + i + " " + res, read(urls.get(i)));
+            }
+        }
+        assertTrue(pool.getOpenCount() <= 2);
+        assertTrue(pool.getMisses() >= 12);
+        assertTrue(pool.getHits() > 0);
+
+        pool.closeAll();
+        assertEquals(0, pool.getOpenCount());
+        assertEquals("jar 3 " + res, read(urls.get(3)));
+    }
+
+    @Test
+    public void testJarFileClosed() throws Throwable {
+        SyntheticClasspath cp = new SyntheticClasspath().jars(2).classesPerJar(2).duplicateResources(1).build();
+        ClasspathResolver resolver = new ClasspathResolver(cp.urls(), null, new JarHandlePool(1));
+
+        String res = cp.resourceNames.get(0);
+        URL url = resolver.findResource(res);
+        //Each lookup builds a new URL, equal to the last.
+        assertNotSame(url, resolver.findResource(res));
+        assertEquals(url, resolver.findResource(res));
+
+        JarFile shared = ((JarURLConnection) url.openConnection()).getJarFile();
+        assertSame(shared, ((JarURLConnection) url.openConnection()).getJarFile());
+        assertNotNull(shared.getEntry(res));
+
+        //Uncached connections hand out a JarFile owned by the caller.
+        JarURLConnection uncached = (JarURLConnection) url.openConnection();
+        uncached.setUseCaches(false);
+        try (JarFile owned = uncached.getJarFile()) {
+            assertNotSame(shared, owned);
+        }
+
+        resolver.close();
+        try {
+            shared.getEntry(res);
+            fail("JarFile still open after the resolver was closed.");
+        } catch (IllegalStateException ignored) {
+        }
+        //Still usable, the JarFile is reopened on demand.
+        assertEquals("jar 0 " + res, read(resolver.findResource(res)));
+        JarFile reopened = ((JarURLConnection) url.openConnection()).getJarFile();
+        assertNotSame(shared, reopened);
+        assertNotNull(reopened.getEntry(res));
+        resolver.close();
+    }
+
+    @Test
+    public void testHandlePerStream() throws Throwable {
+        File dir = Files.createTempDirectory("mcl_pool_stream").toFile();
+        byte[] data = new byte[100 * 1024];
+        new Random(1624).nextBytes(data);
+        File a = writeJar(new File(dir, "a.jar"), data);
+        File b = writeJar(new File(dir, "b.jar"), data);
+        JarHandlePool pool = new JarHandlePool(1);
+        ClasspathResolver resolver = new ClasspathResolver(Arrays.asList(a.toURI().toURL(), b.toURI().toURL()), null, pool);
+        List<URL> urls = Collections.list(resolver.findResources("stored.bin"));
+        assertEquals(2, urls.size());
+
+        for (String name : new String[] { "stored.bin", "deflated.bin" }) {
+            URL url = resolver.findResource(name);
+            //Resolve the entry's data offset first, so only the stream itself is counted.
+            url.openStream().close();
+            long before = pool.getHits() + pool.getMisses();
+            assertArrayEquals(readBytes(url), data);
+            //Many chunks, one handle.
+            assertEquals(name, 1, pool.getHits() + pool.getMisses() - before);
+        }
+
+        //A handle held by a stream survives other jars being read past the pool's limit.
+        try (InputStream is = urls.get(0).openStream()) {
+            byte[] first = new byte[1024];
+            assertEquals(first.length, is.read(first));
+            assertArrayEquals(readBytes(urls.get(1)), data);
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            bos.write(first);
+            copy(is, bos);
+            assertArrayEquals(bos.toByteArray(), data);
+        }
+
+        //Released once closed, partially read or not.
+        InputStream partial = urls.get(1).openStream();
+        assertTrue(partial.read() != -1);
+        partial.close();
+        //So reading the other jar can evict it, and the pool is back within its limit.
+        assertArrayEquals(readBytes(urls.get(0)), data);
+        assertEquals(1, pool.getOpenCount());
+        pool.closeAll();
+    }
+
+    private static File writeJar(File file, byte[] data) throws Throwable {
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file))) {
+            ZipEntry stored = new ZipEntry("stored.bin");
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            stored.setMethod(ZipEntry.STORED);
+            stored.setSize(data.length);
+            stored.setCrc(crc.getValue());
+            zos.putNextEntry(stored);
+            zos.write(data);
+            zos.putNextEntry(new ZipEntry("deflated.bin"));
+            zos.write(data);
+        }
+        return file;
+    }
+
+    private static byte[] readBytes(URL url) throws Throwable {
+        try (InputStream is = url.openStream()) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            copy(is, bos);
+            return bos.toByteArray();
+        }
+    }
+
+    private static void copy(InputStream is, ByteArrayOutputStream bos) throws Throwable {
+        byte[] buf = new byte[4096];
+        int len;
+        while ((len = is.read(buf)) != -1) {
+            bos.write(buf, 0, len);
+        }
+    }
+
+    private static String read(URL url) throws Throwable {
+        try (InputStream is = url.openStream()) {
+            byte[] buf = new byte[256];
+            int len = 0;
+            int read;
+            while ((read = is.read(buf, len, buf.length - len)) > 0) {
+                len += read;
+            }
+            return new String(buf, 0, len, StandardCharsets.UTF_8);
+        }
+    }
+}
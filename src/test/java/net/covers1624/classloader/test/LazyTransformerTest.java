@@ -0,0 +1,193 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.LaunchBouncer;
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.api.IClassTransformer;
+import net.covers1624.classloader.api.Priority;
+import net.covers1624.classloader.api.Sort;
+import net.covers1624.classloader.api.Targets;
+import net.covers1624.classloader.internal.LazyTransformer;
+import net.covers1624.classloader.resolvers.InMemoryResolver;
+import org.junit.Test;
+import org.objectweb.asm.ClassWriter;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class LazyTransformerTest {
+
+    private static final AtomicInteger instances = new AtomicInteger();
+    private static final List<String> calls = new ArrayList<>();
+    private static volatile ClassLoader constructorLoader;
+
+    @Test
+    public void testLazyInstantiation() throws Throwable {
+        instances.set(0);
+        calls.clear();
+        InMemoryResolver resolver = new InMemoryResolver();
+        for (String name : new String[] { "lazy.other.A", "lazy.target.B", "lazy.target.sub.C", "lazy.exact.D" }) {
+            resolver.putClass(name, generate(name));
+        }
+        LazyTransformer lazy = new LazyTransformer(TargetedTransformer.class, TargetedTransformer.class.getAnnotation(Targets.class));
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(resolver);
+        cl.addTransformer(lazy);
+        cl.addTransformer((name, bytes) -> {
+            if (name.startsWith("lazy.")) {
+                calls.add("after " + name);
+            }
+            return bytes;
+        });
+
+        assertFalse(lazy.matches("lazy.other.A"));
+        assertFalse(lazy.matches("lazy.targets.A"));
+        assertTrue(lazy.matches("lazy.target.sub.C"));
+
+        cl.loadClass("lazy.other.A");
+        assertEquals(0, instances.get());
+        assertNull(lazy.getTransformer());
+
+        cl.loadClass("lazy.target.B");
+        cl.loadClass("lazy.target.sub.C");
+        cl.loadClass("lazy.exact.D");
+        assertEquals(1, instances.get());
+        assertTrue(lazy.getTransformer() instanceof TargetedTransformer);
+        //Still runs in its registered position.
+        assertEquals(7, calls.size());
+        assertEquals("after lazy.other.A", calls.get(0));
+        assertEquals("targeted lazy.target.B", calls.get(1));
+        assertEquals("after lazy.target.B", calls.get(2));
+        assertEquals("targeted lazy.exact.D", calls.get(5));
+    }
+
+    @Test
+    public void testConstructorLoadsTarget() throws Throwable {
+        instances.set(0);
+        calls.clear();
+        InMemoryResolver resolver = new InMemoryResolver();
+        resolver.putClass("lazy.ctor.Config", generate("lazy.ctor.Config"));
+        resolver.putClass("lazy.ctor.Main", generate("lazy.ctor.Main"));
+        LazyTransformer lazy = new LazyTransformer(ConfigLoadingTransformer.class, ConfigLoadingTransformer.class.getAnnotation(Targets.class));
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(resolver);
+        cl.addTransformer(lazy);
+        constructorLoader = cl;
+
+        Class<?> main = cl.loadClass("lazy.ctor.Main");
+        assertEquals(1, instances.get());
+        //The constructor's load is defined untransformed, without constructing again.
+        Class<?> config = cl.loadClass("lazy.ctor.Config");
+        assertSame(cl, config.getClassLoader());
+        assertSame(cl, main.getClassLoader());
+        assertEquals(Arrays.asList("ctor lazy.ctor.Main"), calls);
+    }
+
+    @Test
+    public void testLoadTransformersOrder() throws Throwable {
+        instances.set(0);
+        File dir = Files.createTempDirectory("mcl_lazy").toFile();
+        File services = new File(dir, "META-INF/services/" + IClassTransformer.class.getName());
+        services.getParentFile().mkdirs();
+        List<Class<?>> expected = Arrays.asList(HighestEager.class, HighLazy.class, NormalEager.class, LowLazy.class, LowestEager.class);
+        List<String> lines = new ArrayList<>();
+        for (int i = expected.size() - 1; i >= 0; i--) {
+            lines.add(expected.get(i).getName());
+        }
+        Files.write(services.toPath(), lines, StandardCharsets.UTF_8);
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.toURI().toURL() }, LazyTransformerTest.class.getClassLoader())) {
+            List<IClassTransformer> transformers = LaunchBouncer.loadTransformers(loader);
+            List<Class<?>> order = new ArrayList<>();
+            for (IClassTransformer transformer : transformers) {
+                order.add(transformer instanceof LazyTransformer ? ((LazyTransformer) transformer).getTransformerClass() : transformer.getClass());
+            }
+            assertEquals(expected, order);
+            assertTrue(transformers.get(1) instanceof LazyTransformer);
+            assertTrue(transformers.get(3) instanceof LazyTransformer);
+            //Only the eager transformers have been constructed.
+            assertEquals(3, instances.get());
+        }
+    }
+
+    private static byte[] generate(String name) {
+        ClassWriter cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER, name.replace('.', '/'), null, "java/lang/Object", null);
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    @Targets (classes = "lazy.exact.D", packages = "lazy.target")
+    public static class TargetedTransformer implements IClassTransformer {
+
+        public TargetedTransformer() {
+            instances.incrementAndGet();
+        }
+
+        @Override
+        public byte[] transform(String name, byte[] bytes) {
+            calls.add("targeted " + name);
+            return bytes;
+        }
+    }
+
+    @Targets (packages = "lazy.ctor")
+    public static class ConfigLoadingTransformer implements IClassTransformer {
+
+        public ConfigLoadingTransformer() throws ClassNotFoundException {
+            instances.incrementAndGet();
+            Class.forName("lazy.ctor.Config", false, constructorLoader);
+        }
+
+        @Override
+        public byte[] transform(String name, byte[] bytes) {
+            calls.add("ctor " + name);
+            return bytes;
+        }
+    }
+
+    public static class CountingTransformer implements IClassTransformer {
+
+        public CountingTransformer() {
+            instances.incrementAndGet();
+        }
+
+        @Override
+        public byte[] transform(String name, byte[] bytes) {
+            return bytes;
+        }
+    }
+
+    @Sort (Priority.HIGHEST)
+    public static class HighestEager extends CountingTransformer {
+    }
+
+    @Sort (Priority.HIGH)
+    @Targets (packages = "lazy.order")
+    public static class HighLazy extends CountingTransformer {
+    }
+
+    public static class NormalEager extends CountingTransformer {
+    }
+
+    @Sort (Priority.LOW)
+    @Targets (classes = "lazy.order.Low")
+    public static class LowLazy extends CountingTransformer {
+    }
+
+    @Sort (Priority.LOWEST)
+    public static class LowestEager extends CountingTransformer {
+    }
+}
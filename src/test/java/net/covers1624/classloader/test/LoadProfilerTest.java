@@ -0,0 +1,65 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.profiling.LatencyHistogram;
+import net.covers1624.classloader.profiling.LoadProfiler;
+import net.covers1624.classloader.profiling.LoadProfiler.SlowLoad;
+import net.covers1624.classloader.profiling.LoadProfiler.Stage;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class LoadProfilerTest {
+
+    private static final String OUTER = "net.covers1624.classloader.api.EnvVar";
+    private static final String NESTED = "net.covers1624.classloader.api.ClassLoaderLoggerImpl";
+
+    @Test
+    public void testNestedLoadChain() throws Throwable {
+        ModularClassLoader cl = new ModularClassLoader();
+        LoadProfiler profiler = cl.enableProfiler(0);
+        cl.addTransformer((name, bytes) -> {
+            if (name.equals(OUTER)) {
+                try {
+                    cl.loadClass(NESTED);
+                } catch (ClassNotFoundException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            return bytes;
+        });
+        cl.loadClass(OUTER);
+
+        SlowLoad nested = profiler.getSlowLoads().stream().filter(e -> e.getName().equals(NESTED)).findFirst().orElse(null);
+        assertNotNull(nested);
+        assertEquals(Arrays.asList(OUTER, NESTED), nested.getChain());
+        assertEquals(1, profiler.getClassStats(OUTER).getLoads());
+        //The outer lock is held for the entire nested load.
+        assertTrue(profiler.getClassStats(OUTER).getHoldNanos() >= nested.getHoldNanos());
+        for (Stage stage : Stage.values()) {
+            assertTrue(stage.name(), profiler.getHistogram(stage).getCount() > 0);
+        }
+        assertNotNull(profiler.report());
+
+        cl.disableProfiler();
+        assertNull(cl.getProfiler());
+    }
+
+    @Test
+    public void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(100_000, histogram.getMaxNanos());
+        long p50 = histogram.getPercentileNanos(50);
+        assertTrue(p50 >= 50_000 && p50 < 100_000);
+        assertEquals(100_000, histogram.getPercentileNanos(100));
+    }
+}
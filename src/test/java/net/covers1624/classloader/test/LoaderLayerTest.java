@@ -0,0 +1,118 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.LoaderLayer;
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.api.IResourceResolver;
+import org.junit.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class LoaderLayerTest {
+
+    @Test
+    public void testDelegation() throws Throwable {
+        SyntheticClasspath cp = new SyntheticClasspath().jars(3).classesPerJar(4).build();
+        LoaderLayer layer = new LoaderLayer(getClass().getClassLoader());
+        AtomicLong transformed = new AtomicLong();
+        layer.addTransformer(new SyntheticClasspath.PassThroughTransformer(transformed));
+
+        ModularClassLoader a = layer.defineModule("a", Arrays.asList("synth.j0.p0", "synth.j0.p1"), jar(cp, 0));
+        //Packages found by scanning.
+        ModularClassLoader b = layer.defineModule("b", jar(cp, 1));
+        assertSame(b, layer.findLoader(cp.classNames.get(4)));
+        assertNull(layer.findLoader("java.lang.String"));
+
+        //Loaded through a, defined by b.
+        Class<?> fromB = a.loadClass(cp.classNames.get(4));
+        assertSame(b, fromB.getClassLoader());
+        assertSame(fromB, b.loadClass(cp.classNames.get(4)));
+        assertSame(a, b.loadClass(cp.classNames.get(0)).getClassLoader());
+        //Outside all modules, shared from the parent.
+        assertSame(LoaderLayerTest.class, a.loadClass(LoaderLayerTest.class.getName()));
+        assertSame(LoaderLayerTest.class, b.loadClass(LoaderLayerTest.class.getName()));
+        assertEquals(2, transformed.get());
+
+        try {
+            layer.defineModule("c", Collections.singletonList("synth.j0.p0"), jar(cp, 2));
+            fail("Split package allowed.");
+        } catch (IllegalStateException ignored) {
+        }
+
+        //Child layers see their parent's modules, transformers stay per layer.
+        LoaderLayer child = layer.createChild();
+        ModularClassLoader c = child.defineModule("c", jar(cp, 2));
+        assertSame(a, c.loadClass(cp.classNames.get(0)).getClassLoader());
+        assertSame(c, c.loadClass(cp.classNames.get(8)).getClassLoader());
+        assertEquals(Collections.singletonList("c"), child.getModuleNames());
+        assertEquals(2, transformed.get());
+    }
+
+    @Test
+    public void testResources() throws Throwable {
+        SyntheticClasspath cp = new SyntheticClasspath().jars(2).classesPerJar(4).build();
+        File dir = Files.createTempDirectory("mcl_layer").toFile();
+        writeRunnable(dir, "svc/impl/Impl");
+        File services = new File(dir, "META-INF/services/" + Runnable.class.getName());
+        services.getParentFile().mkdirs();
+        Files.write(services.toPath(), Collections.singletonList("svc.impl.Impl"), StandardCharsets.UTF_8);
+
+        LoaderLayer layer = new LoaderLayer(getClass().getClassLoader());
+        ModularClassLoader a = layer.defineModule("a", Arrays.asList("synth.j0.p0", "svc.impl"), jar(cp, 0), IResourceResolver.fromURLs(Collections.singletonList(dir.toURI().toURL())));
+        ModularClassLoader b = layer.defineModule("b", jar(cp, 1));
+
+        //Outside all modules, from the parent.
+        assertNotNull(a.getResource("java/lang/Object.class"));
+        assertNotNull(b.getResourceAsStream("java/lang/Object.class"));
+        //Owned by another module, from its owner.
+        String res = cp.classNames.get(4).replace('.', '/') + ".class";
+        assertNotNull(b.getResource(res));
+        assertEquals(b.getResource(res), a.getResource(res));
+        assertEquals(Collections.list(b.getResources(res)), Collections.list(a.getResources(res)));
+        assertNotNull(a.getResourceAsBytes(res));
+        assertNull(b.getResource("svc/impl/Missing.class"));
+
+        //Services files aren't in any package, but are still found in the module.
+        List<Runnable> found = new ArrayList<>();
+        ServiceLoader.load(Runnable.class, a).forEach(found::add);
+        assertEquals(1, found.size());
+        assertSame(a, found.get(0).getClass().getClassLoader());
+        assertEquals("svc.impl.Impl", found.get(0).getClass().getName());
+    }
+
+    private static void writeRunnable(File dir, String name) throws Throwable {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER, name, null, "java/lang/Object", new String[] { "java/lang/Runnable" });
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        mv = cw.visitMethod(ACC_PUBLIC, "run", "()V", null, null);
+        mv.visitCode();
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        cw.visitEnd();
+        File file = new File(dir, name + ".class");
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), cw.toByteArray());
+    }
+
+    private static IResourceResolver jar(SyntheticClasspath cp, int jar) throws Throwable {
+        return IResourceResolver.fromURLs(Collections.singletonList(cp.jarFiles.get(jar).toURI().toURL()));
+    }
+}
@@ -0,0 +1,111 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.resolvers.MavenResolver;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class MavenResolverTest {
+
+    @Test
+    public void testArtifactPath() {
+        assertEquals("org/ow2/asm/asm/9.8/asm-9.8.jar", MavenResolver.artifactPath("org.ow2.asm:asm:9.8"));
+        assertEquals("a/b/c/1/c-1-sources.zip", MavenResolver.artifactPath("a.b:c:1:sources@zip"));
+        try {
+            MavenResolver.artifactPath("a.b:c");
+            fail("Malformed artifact accepted.");
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void testResolve() throws Throwable {
+        File dir = Files.createTempDirectory("mcl_maven").toFile();
+        File empty = new File(dir, "empty");
+        File repo = new File(dir, "repo");
+        File cache = new File(dir, "cache");
+        empty.mkdirs();
+        byte[] one = publish(repo, "net.test:one:1.0", "one", true);
+        byte[] two = publish(repo, "net.test:two:2.0", "two", false);
+        publish(repo, "net.test:same:1.0", "one", true);
+        List<URL> repos = Arrays.asList(empty.toURI().toURL(), repo.toURI().toURL());
+
+        MavenResolver resolver = new MavenResolver(cache, 4);
+        List<File> files = resolver.resolve(repos, Arrays.asList("net.test:one:1.0", "net.test:two:2.0", "net.test:same:1.0"));
+        assertArrayEquals(one, Files.readAllBytes(files.get(0).toPath()));
+        assertArrayEquals(two, Files.readAllBytes(files.get(1).toPath()));
+        //Content addressed, identical jars share a blob.
+        assertEquals(files.get(0), files.get(2));
+        assertEquals(sha1(one) + ".jar", files.get(0).getName());
+
+        //Warm starts never touch the repository.
+        deleteAll(repo);
+        assertEquals(files, resolver.resolve(repos, Arrays.asList("net.test:one:1.0", "net.test:two:2.0", "net.test:same:1.0")));
+
+        try {
+            resolver.resolve(repos, Collections.singletonList("net.test:missing:1.0"));
+            fail("Missing artifact resolved.");
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Test
+    public void testChecksumMismatch() throws Throwable {
+        File dir = Files.createTempDirectory("mcl_maven").toFile();
+        File repo = new File(dir, "repo");
+        publish(repo, "net.test:bad:1.0", "bad", true);
+        File jar = new File(repo, MavenResolver.artifactPath("net.test:bad:1.0"));
+        Files.write(jar.toPath(), "tampered".getBytes(StandardCharsets.UTF_8));
+
+        MavenResolver resolver = new MavenResolver(new File(dir, "cache"), 1);
+        try {
+            resolver.resolve(Collections.singletonList(repo.toURI().toURL()), Collections.singletonList("net.test:bad:1.0"));
+            fail("Tampered artifact accepted.");
+        } catch (IOException e) {
+            assertTrue(e.getSuppressed().length > 0);
+        }
+        assertFalse(new File(dir, "cache/index").exists());
+    }
+
+    private static byte[] publish(File repo, String artifact, String contents, boolean checksum) throws Throwable {
+        File file = new File(repo, MavenResolver.artifactPath(artifact));
+        file.getParentFile().mkdirs();
+        byte[] bytes = contents.getBytes(StandardCharsets.UTF_8);
+        Files.write(file.toPath(), bytes);
+        if (checksum) {
+            Files.write(new File(file.getPath() + ".sha1").toPath(), (sha1(bytes) + "  " + file.getName()).getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes;
+    }
+
+    private static String sha1(byte[] bytes) throws Throwable {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-1").digest(bytes)) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+    private static void deleteAll(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteAll(child);
+            }
+        }
+        file.delete();
+    }
+}
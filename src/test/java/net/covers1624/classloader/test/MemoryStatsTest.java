@@ -0,0 +1,78 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.api.IResourceResolver;
+import net.covers1624.classloader.profiling.MemoryStats;
+import net.covers1624.classloader.resolvers.ClasspathResolver;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class MemoryStatsTest {
+
+    @Test
+    public void testAccounting() throws Throwable {
+        SyntheticClasspath a = new SyntheticClasspath().jars(1).classesPerJar(10).build();
+        //Only b's second jar has names distinct from a.
+        SyntheticClasspath b = new SyntheticClasspath().jars(2).classesPerJar(5).build();
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(IResourceResolver.fromURLs(a.urls()));
+        cl.addResolver(IResourceResolver.fromURLs(b.urls()));
+        for (String name : a.classNames) {
+            cl.loadClass(name);
+        }
+        for (String name : b.classNames.subList(5, 10)) {
+            cl.loadClass(name);
+        }
+        cl.loadClass("java.lang.String");
+
+        MemoryStats stats = cl.getMemoryStats();
+        assertEquals(15, stats.getDefinedClasses());
+        assertTrue(stats.getCachedClasses() >= 16);
+        assertTrue(stats.getDefinedClassBytes() > 0);
+        assertTrue(stats.getLockMapSize() >= 16);
+
+        //Index 0 is the parent ClassLoader resolver.
+        assertEquals(3, stats.getResolvers().size());
+        MemoryStats.ResolverStats first = stats.getResolvers().get(1);
+        MemoryStats.ResolverStats second = stats.getResolvers().get(2);
+        assertEquals(10, first.getClasses());
+        assertEquals(5, second.getClasses());
+        assertEquals(stats.getDefinedClassBytes(), first.getBytes() + second.getBytes());
+        assertTrue(first.getName().contains("synth_0.jar"));
+        assertNotNull(stats.toString());
+
+        assertEquals(1, first.getRoots().size());
+        assertEquals(10, first.getRoots().get(0).getClasses());
+
+        ModularClassLoader child = cl.createChild();
+        child.addResolver(IResourceResolver.fromURLs(new SyntheticClasspath().jars(1).classesPerJar(3).build().urls()));
+        child.loadClass(a.classNames.get(0));
+        assertEquals(0, child.getMemoryStats().getDefinedClasses());
+        assertEquals(0, child.getMemoryStats().getResolvers().get(0).getClasses());
+    }
+
+    @Test
+    public void testPerRoot() throws Throwable {
+        SyntheticClasspath cp = new SyntheticClasspath().jars(2).classesPerJar(4).build();
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(new ClasspathResolver(cp.urls()));
+        for (String name : cp.classNames.subList(0, 7)) {
+            cl.loadClass(name);
+        }
+        MemoryStats.ResolverStats stats = cl.getMemoryStats().getResolvers().get(1);
+        assertEquals(7, stats.getClasses());
+        List<MemoryStats.RootStats> roots = stats.getRoots();
+        assertEquals(2, roots.size());
+        assertTrue(roots.get(0).getRoot(), roots.get(0).getRoot().startsWith("file:") && roots.get(0).getRoot().endsWith("synth_0.jar"));
+        assertTrue(roots.get(1).getRoot().endsWith("synth_1.jar"));
+        assertEquals(4, roots.get(0).getClasses());
+        assertEquals(3, roots.get(1).getClasses());
+        assertEquals(stats.getBytes(), roots.get(0).getBytes() + roots.get(1).getBytes());
+    }
+}
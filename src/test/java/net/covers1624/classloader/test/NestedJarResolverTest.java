@@ -0,0 +1,119 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.Utils;
+import net.covers1624.classloader.api.IResourceResolver;
+import net.covers1624.classloader.api.IResourceResolverFactory;
+import net.covers1624.classloader.resolvers.NestedJarResolver;
+import net.covers1624.classloader.scan.ClassIndex;
+import net.covers1624.classloader.scan.ClassInfo;
+import net.covers1624.classloader.scan.ClassScanner;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class NestedJarResolverTest {
+
+    @Test
+    public void testNestedLookups() throws Throwable {
+        SyntheticClasspath cp = new SyntheticClasspath().jars(2).classesPerJar(5).duplicateResources(1).build();
+        File outer = writeOuter(cp, null);
+
+        NestedJarResolver resolver = new NestedJarResolver(outer, Arrays.asList("libs/synth_0.jar", "libs/synth_1.jar"));
+        String res = cp.resourceNames.get(0);
+        URL url = resolver.findResource(res);
+        assertNotNull(url);
+        assertEquals(NestedJarResolver.PROTOCOL, url.getProtocol());
+        assertEquals("jar 0 " + res, read(url));
+
+        List<URL> all = Collections.list(resolver.findResources(res));
+        assertEquals(2, all.size());
+        assertEquals("jar 1 " + res, read(all.get(1)));
+        assertNull(resolver.findResource("missing.txt"));
+
+        ModularClassLoader child = new ModularClassLoader().createChild();
+        child.addResolver(resolver);
+        for (String name : cp.classNames) {
+            assertSame(child, child.loadClass(name).getClassLoader());
+        }
+        //Scanned through its resource names, it has no roots.
+        ClassIndex index = new ClassScanner().scanResolvers(Collections.singletonList(resolver));
+        assertEquals(new HashSet<>(cp.classNames), index.getClasses().stream().map(ClassInfo::getName).collect(Collectors.toSet()));
+        assertTrue(index.getUnscanned().isEmpty());
+    }
+
+    @Test
+    public void testManifestFactory() throws Throwable {
+        SyntheticClasspath cp = new SyntheticClasspath().jars(2).classesPerJar(5).build();
+        File outer = writeOuter(cp, "libs/");
+
+        //Load the factory through a loader which can see the outer jar, as LaunchBouncer would.
+        IResourceResolverFactory.class.getName();
+        NestedJarResolver.class.getName();
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(IResourceResolver.fromURLs(Collections.singletonList(outer.toURI().toURL())));
+        Class<?> clazz = Class.forName("net.covers1624.classloader.resolvers.NestedResolver", true, cl);
+        NestedJarResolver resolver = (NestedJarResolver) ((IResourceResolverFactory) clazz.newInstance()).create();
+        assertNotNull(resolver);
+        assertEquals(Arrays.asList("libs/synth_0.jar", "libs/synth_1.jar"), resolver.getNestedJars());
+        assertNotNull(resolver.findResource(cp.classNames.get(7).replace('.', '/') + ".class"));
+    }
+
+    //First nested jar is STORED, the second DEFLATED.
+    private static File writeOuter(SyntheticClasspath cp, String nestedPath) throws Throwable {
+        File outer = Files.createTempFile("mcl_outer", ".jar").toFile();
+        outer.deleteOnExit();
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (nestedPath != null) {
+            manifest.getMainAttributes().putValue("Resolver-Nested-Path", nestedPath);
+        }
+        try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(outer), manifest)) {
+            for (int i = 0; i < cp.jarFiles.size(); i++) {
+                byte[] bytes = Files.readAllBytes(cp.jarFiles.get(i).toPath());
+                JarEntry entry = new JarEntry("libs/" + cp.jarFiles.get(i).getName());
+                if (i == 0) {
+                    CRC32 crc = new CRC32();
+                    crc.update(bytes);
+                    entry.setMethod(JarEntry.STORED);
+                    entry.setSize(bytes.length);
+                    entry.setCompressedSize(bytes.length);
+                    entry.setCrc(crc.getValue());
+                }
+                jos.putNextEntry(entry);
+                jos.write(bytes);
+                jos.closeEntry();
+            }
+        }
+        return outer;
+    }
+
+    private static String read(URL url) throws Throwable {
+        try (InputStream is = url.openStream()) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            Utils.copy(is, bos);
+            return new String(bos.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
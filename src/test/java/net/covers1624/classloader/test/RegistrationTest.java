@@ -0,0 +1,87 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.api.IResourceResolver;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class RegistrationTest {
+
+    @Test
+    public void testRegisterWhilstLoading() throws Throwable {
+        SyntheticClasspath cp = new SyntheticClasspath().jars(20).classesPerJar(10).build();
+        ModularClassLoader cl = new ModularClassLoader();
+        AtomicLong transformed = new AtomicLong();
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Set<String> loaded = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            List<String> names = new ArrayList<>(cp.classNames);
+            Collections.shuffle(names);
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    while (!done.get() || loaded.size() < names.size()) {
+                        for (String name : names) {
+                            try {
+                                cl.loadClass(name);
+                                loaded.add(name);
+                            } catch (ClassNotFoundException ignored) {
+                                //Its jar isn't registered yet.
+                            }
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        for (File jar : cp.jarFiles) {
+            cl.addResolver(IResourceResolver.fromURLs(Collections.singletonList(jar.toURI().toURL())));
+            cl.addTransformer(new SyntheticClasspath.PassThroughTransformer(transformed));
+            Thread.yield();
+        }
+        done.set(true);
+        for (Thread thread : threads) {
+            thread.join(60000);
+            assertFalse(thread.isAlive());
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(cp.classNames.size(), loaded.size());
+        assertTrue(transformed.get() > 0);
+        assertEquals(cp.jarFiles.size() + 1, cl.getMemoryStats().getResolvers().size());
+
+        //Registrations are visible to subsequent loads.
+        SyntheticClasspath late = new SyntheticClasspath().jars(1).classesPerJar(1).packageDepth(3).build();
+        AtomicLong lateTransformed = new AtomicLong();
+        cl.addTransformer(new SyntheticClasspath.PassThroughTransformer(lateTransformed));
+        cl.addResolver(IResourceResolver.fromURLs(late.urls()));
+        Class<?> clazz = cl.loadClass(late.classNames.get(0));
+        assertSame(cl, clazz.getClassLoader());
+        assertTrue(lateTransformed.get() > 0);
+    }
+}
@@ -0,0 +1,80 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.Utils;
+import net.covers1624.classloader.api.IResourceResolver;
+import net.covers1624.classloader.cache.ResourceCache;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class ResourceCacheTest {
+
+    @Test
+    public void testCachedReads() throws Throwable {
+        SyntheticClasspath cp = new SyntheticClasspath().jars(2).classesPerJar(2).duplicateResources(2).build();
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(IResourceResolver.fromURLs(cp.urls()));
+        ResourceCache cache = cl.enableResourceCache(1024 * 1024, 64 * 1024);
+
+        String res = cp.resourceNames.get(0);
+        byte[] first = cl.getResourceAsBytes(res);
+        assertEquals("jar 0 " + res, new String(first, StandardCharsets.UTF_8));
+        first[0] = 0;
+        //Callers get copies, the cached contents can't be modified.
+        assertEquals("jar 0 " + res, new String(cl.getResourceAsBytes(res), StandardCharsets.UTF_8));
+        try (InputStream is = cl.getResourceAsStream(res)) {
+            assertEquals("jar 0 " + res, new String(Utils.toByteArray(is), StandardCharsets.UTF_8));
+        }
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.size());
+
+        //Classes are never cached.
+        assertNotNull(cl.getResourceAsBytes(cp.classNames.get(0).replace('.', '/') + ".class"));
+        assertEquals(1, cache.size());
+        assertNull(cl.getResourceAsBytes("missing.txt"));
+    }
+
+    @Test
+    public void testEvictionAndInvalidation() throws Throwable {
+        Path root = Files.createTempDirectory("mcl_res");
+        for (int i = 0; i < 4; i++) {
+            Files.write(root.resolve("res_" + i + ".txt"), new byte[100]);
+        }
+        Files.write(root.resolve("big.txt"), new byte[1000]);
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(IResourceResolver.fromURLs(Collections.singletonList(root.toUri().toURL())));
+        ResourceCache cache = cl.enableResourceCache(250, 500);
+
+        for (int i = 0; i < 4; i++) {
+            assertNotNull(cl.getResourceAsBytes("res_" + i + ".txt"));
+        }
+        assertEquals(2, cache.size());
+        assertEquals(200, cache.getWeight());
+        assertEquals(2, cache.getEvictions());
+        assertNotNull(cl.getResourceAsBytes("big.txt"));
+        assertEquals(2, cache.size());
+
+        //Adding a resolver, to this loader or a parent, drops the cache.
+        ModularClassLoader child = cl.createChild();
+        ResourceCache childCache = child.enableResourceCache(250, 500);
+        assertNotNull(child.getResourceAsBytes("res_0.txt"));
+        assertEquals(1, childCache.size());
+        cl.addResolver(IResourceResolver.EMPTY);
+        assertNotNull(cl.getResourceAsBytes("res_3.txt"));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getInvalidations());
+        assertNotNull(child.getResourceAsBytes("res_0.txt"));
+        assertEquals(1, childCache.getInvalidations());
+    }
+}
@@ -0,0 +1,128 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.api.IClassTransformer;
+import net.covers1624.classloader.api.IResourceResolver;
+import net.covers1624.classloader.api.IResourceResolverFactory;
+import net.covers1624.classloader.profiling.MemoryStats;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how ModularClassLoader scales as each dimension of a {@link SyntheticClasspath}
+ * grows, printing load throughput and the class bytes retained, from {@link MemoryStats},
+ * for each step.
+ *
+ * Run via 'gradlew scalingBenchmark'. Sizes are kept small by default,
+ * scale them with '-Dcovers1624.classloader.scaling=N'.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class ScalingBenchmark {
+
+    private static final int SCALE = Integer.getInteger("covers1624.classloader.scaling", 1);
+
+    public static void main(String[] args) throws Throwable {
+        scaleJars();
+        scaleClasses();
+        scalePackageDepth();
+        scaleTransformers();
+        scaleDuplicateResources();
+        simpleResolver();
+    }
+
+    private static void scaleJars() throws Throwable {
+        header("jars");
+        for (int jars : new int[] { 1, 4, 16 }) {
+            run("jars=" + jars * SCALE, new SyntheticClasspath().jars(jars * SCALE).classesPerJar(50).build(), 1, false);
+        }
+    }
+
+    private static void scaleClasses() throws Throwable {
+        header("classes per jar");
+        for (int classes : new int[] { 50, 200, 800 }) {
+            run("classes=" + classes * SCALE, new SyntheticClasspath().jars(2).classesPerJar(classes * SCALE).build(), 1, false);
+        }
+    }
+
+    private static void scalePackageDepth() throws Throwable {
+        header("package depth");
+        for (int depth : new int[] { 1, 4, 16 }) {
+            run("depth=" + depth, new SyntheticClasspath().jars(2).classesPerJar(200 * SCALE).packageDepth(depth).build(), 1, false);
+        }
+    }
+
+    private static void scaleTransformers() throws Throwable {
+        header("transformers");
+        SyntheticClasspath cp = new SyntheticClasspath().jars(2).classesPerJar(200 * SCALE).build();
+        for (int transformers : new int[] { 0, 4, 16 }) {
+            run("transformers=" + transformers, cp, transformers, false);
+        }
+    }
+
+    private static void scaleDuplicateResources() throws Throwable {
+        header("duplicate resources");
+        for (int jars : new int[] { 1, 8, 32 }) {
+            SyntheticClasspath cp = new SyntheticClasspath().jars(jars * SCALE).classesPerJar(10).duplicateResources(20).build();
+            ModularClassLoader cl = new ModularClassLoader();
+            cl.addResolver(IResourceResolver.fromURLs(cp.urls()));
+            long start = System.nanoTime();
+            for (String res : cp.resourceNames) {
+                int found = Collections.list(cl.getResources(res)).size();
+                if (found != cp.jars || cl.getResourceAsBytes(res) == null) {
+                    throw new IllegalStateException("Expected " + cp.jars + " copies of " + res + ", found " + found);
+                }
+            }
+            long time = System.nanoTime() - start;
+            System.out.println(String.format(Locale.ROOT, "  jars=%-13d %8.1f lookups/ms", cp.jars, cp.resourceNames.size() * 2 / (time / 1e6)));
+        }
+    }
+
+    private static void simpleResolver() throws Throwable {
+        header("SimpleResolver");
+        SyntheticClasspath cp = new SyntheticClasspath().jars(4).classesPerJar(100 * SCALE).build();
+        run("SimpleResolver", cp, 1, true);
+    }
+
+    private static void run(String label, SyntheticClasspath cp, int transformerCount, boolean simpleResolver) throws Throwable {
+        AtomicLong transforms = new AtomicLong();
+        List<IClassTransformer> transformers = SyntheticClasspath.transformers(transformerCount, transforms);
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(simpleResolver ? createSimpleResolver(cp) : IResourceResolver.fromURLs(cp.urls()));
+        transformers.forEach(cl::addTransformer);
+
+        long start = System.nanoTime();
+        for (String name : cp.classNames) {
+            if (cl.loadClass(name).getClassLoader() != cl) {
+                throw new IllegalStateException(name + " not defined by the ModularClassLoader.");
+            }
+        }
+        long time = System.nanoTime() - start;
+
+        if (transforms.get() != (long) cp.classNames.size() * transformerCount) {
+            throw new IllegalStateException("Expected " + cp.classNames.size() * transformerCount + " transforms, got " + transforms.get());
+        }
+        MemoryStats stats = cl.getMemoryStats();
+        System.out.println(String.format(Locale.ROOT, "  %-18s %8d classes %10.1f classes/ms %10d KiB class bytes", label, cp.classNames.size(), cp.classNames.size() / (time / 1e6), stats.getDefinedClassBytes() / 1024));
+    }
+
+    //Loads SimpleResolver through a ModularClassLoader that can see the manifest jar, as LaunchBouncer would.
+    private static IResourceResolver createSimpleResolver(SyntheticClasspath cp) throws Throwable {
+        IResourceResolverFactory.class.getName();
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(IResourceResolver.fromURLs(Collections.singletonList(cp.writeResolverManifestJar().toURI().toURL())));
+        Class<?> clazz = Class.forName("net.covers1624.classloader.resolvers.SimpleResolver", true, cl);
+        IResourceResolver resolver = ((IResourceResolverFactory) clazz.newInstance()).create();
+        if (resolver == null) {
+            throw new IllegalStateException("SimpleResolver found no manifest.");
+        }
+        return resolver;
+    }
+
+    private static void header(String dimension) {
+        System.out.println("Scaling " + dimension + ":");
+    }
+}
@@ -0,0 +1,50 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.api.IResourceResolver;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class SharedClassListTest {
+
+    @Test
+    public void testRecording() throws Throwable {
+        SyntheticClasspath cp = new SyntheticClasspath().jars(1).classesPerJar(3).build();
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(IResourceResolver.fromURLs(cp.urls()));
+        cl.loadClass("java.util.ArrayList");
+        assertTrue(cl.getSharedClasses().isEmpty());
+
+        cl.recordSharedClasses();
+        //Excluded, and a parent cache hit.
+        cl.loadClass("java.lang.String");
+        cl.loadClass(SharedClassListTest.class.getName());
+        //Defined by the child loader, never shared.
+        cl.loadClass(cp.classNames.get(0));
+
+        List<String> shared = cl.getSharedClasses();
+        assertTrue(shared.contains("java/lang/String"));
+        assertTrue(shared.contains("net/covers1624/classloader/test/SharedClassListTest"));
+        assertFalse(shared.contains(cp.classNames.get(0).replace('.', '/')));
+
+        //Classes shared from a ModularClassLoader can't be archived.
+        ModularClassLoader child = cl.createChild();
+        child.recordSharedClasses();
+        child.loadClass(cp.classNames.get(0));
+        assertFalse(child.getSharedClasses().contains(cp.classNames.get(0).replace('.', '/')));
+
+        File file = File.createTempFile("mcl_cds", ".classlist");
+        file.deleteOnExit();
+        cl.writeClassList(file);
+        assertEquals(shared, Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+    }
+}
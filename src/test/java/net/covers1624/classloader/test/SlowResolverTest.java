@@ -0,0 +1,119 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.api.IResourceResolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class SlowResolverTest {
+
+    private static final long DELAY = 200;
+
+    @Test
+    public void testConcurrentLookup() throws Throwable {
+        AtomicInteger queries = new AtomicInteger();
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(IResourceResolver.slow(new DelayedResolver("first", "none", queries)));
+        cl.addResolver(IResourceResolver.slow(new DelayedResolver("second", "shared", queries)));
+        cl.addResolver(new DelayedResolver("third", "shared,fast", null));
+        cl.addResolver(IResourceResolver.slow(new DelayedResolver("fourth", "shared,slow", queries)));
+
+        //Sequential, each slow miss adds up.
+        long start = System.currentTimeMillis();
+        assertEquals("file:/third/fast", cl.getResource("fast").toString());
+        assertTrue(System.currentTimeMillis() - start >= DELAY * 2);
+
+        cl.enableConcurrentLookup();
+        start = System.currentTimeMillis();
+        assertEquals("file:/third/fast", cl.getResource("fast").toString());
+        assertTrue(System.currentTimeMillis() - start < DELAY * 2);
+
+        //Resolver order is preserved, the second wins over the faster third.
+        assertEquals("file:/second/shared", cl.getResource("shared").toString());
+        assertEquals("file:/fourth/slow", cl.getResource("slow").toString());
+        assertNull(cl.getResource("missing"));
+
+        //Children inherit the mode, and failures behave as they would sequentially.
+        ModularClassLoader child = cl.createChild();
+        child.addResolver(IResourceResolver.slow(new DelayedResolver("broken", null, null)));
+        assertNull(child.getResource("child"));
+
+        cl.disableConcurrentLookup();
+        queries.set(0);
+        assertEquals("file:/second/shared", cl.getResource("shared").toString());
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    public void testUncheckedFailure() throws Throwable {
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addResolver(IResourceResolver.slow(new IResourceResolver() {
+            @Override
+            public URL findResource(String name) {
+                throw new IllegalStateException("Unchecked.");
+            }
+
+            @Override
+            public Enumeration<URL> findResources(String name) {
+                return Collections.emptyEnumeration();
+            }
+        }));
+        cl.enableConcurrentLookup();
+        try {
+            cl.getResource("anything");
+            fail("Expected the resolver's exception.");
+        } catch (IllegalStateException e) {
+            assertEquals("Unchecked.", e.getMessage());
+        }
+    }
+
+    private static class DelayedResolver implements IResourceResolver {
+
+        private final String root;
+        private final String contents;
+        private final AtomicInteger queries;
+
+        private DelayedResolver(String root, String contents, AtomicInteger queries) {
+            this.root = root;
+            this.contents = contents;
+            this.queries = queries;
+        }
+
+        @Override
+        public URL findResource(String name) throws IOException {
+            if (queries != null) {
+                queries.incrementAndGet();
+                try {
+                    Thread.sleep(DELAY);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            if (contents == null) {
+                throw new IOException("Broken.");
+            }
+            for (String entry : contents.split(",")) {
+                if (entry.equals(name)) {
+                    return new URL("file:/" + root + "/" + name);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Enumeration<URL> findResources(String name) throws IOException {
+            URL url = findResource(name);
+            return url != null ? Collections.enumeration(Collections.singletonList(url)) : Collections.emptyEnumeration();
+        }
+    }
+}
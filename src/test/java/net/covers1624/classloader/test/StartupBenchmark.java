@@ -0,0 +1,242 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.LaunchBouncer;
+import net.covers1624.classloader.api.IBounceClass;
+import net.covers1624.classloader.api.IClassTransformer;
+import net.covers1624.classloader.api.IResourceResolverFactory;
+import net.covers1624.classloader.profiling.LoadProfiler;
+import net.covers1624.classloader.resolvers.SimpleResolver;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Measures wall clock time from JVM start to {@link IBounceClass#main} through {@link LaunchBouncer},
+ * by launching fresh JVMs against a synthetic bouncer, transformers and resolver.
+ *
+ * A {@link SyntheticClasspath} is served through {@link SimpleResolver}, and a generated
+ * bouncer jar registers the resolver factory, the transformers and two bouncers, one of
+ * which enables {@link net.covers1624.classloader.ModularClassLoader#useASMHacks()}.
+ * Each run is timed from process spawn until the bounced main has loaded the whole
+ * synthetic classpath, broken down into JVM boot, LaunchBouncer setup and class loading.
+ *
+ * Run via 'gradlew startupBenchmark', configured with system properties:
+ * <pre>
+ *   covers1624.classloader.startup.runs          Measured runs per mode, default 10.
+ *   covers1624.classloader.startup.warmup        Discarded runs per mode, default 2.
+ *   covers1624.classloader.startup.jars          Synthetic jars, default 20.
+ *   covers1624.classloader.startup.classes       Classes per jar, default 100.
+ *   covers1624.classloader.startup.transformers  Transformers, default 4.
+ *   covers1624.classloader.startup.profile       Also report per stage class loading totals, default false.
+ * </pre>
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class StartupBenchmark {
+
+    private static final int RUNS = Integer.getInteger("covers1624.classloader.startup.runs", 10);
+    private static final int WARMUP = Integer.getInteger("covers1624.classloader.startup.warmup", 2);
+    private static final int JARS = Integer.getInteger("covers1624.classloader.startup.jars", 20);
+    private static final int CLASSES = Integer.getInteger("covers1624.classloader.startup.classes", 100);
+    private static final int TRANSFORMERS = Integer.getInteger("covers1624.classloader.startup.transformers", 4);
+    private static final boolean PROFILE = Boolean.getBoolean("covers1624.classloader.startup.profile");
+
+    private static final String PROBE = Type.getInternalName(StartupProbe.class);
+
+    public static void main(String[] args) throws Throwable {
+        SyntheticClasspath cp = new SyntheticClasspath().jars(JARS).classesPerJar(CLASSES).build();
+        File classList = new File(cp.dir.getParentFile(), cp.dir.getName() + "_classes.txt");
+        classList.deleteOnExit();
+        Files.write(classList.toPath(), cp.classNames, StandardCharsets.UTF_8);
+        File bouncerJar = writeBouncerJar(cp);
+
+        System.out.println(String.format(Locale.ROOT, "Startup: %d jars, %d classes, %d transformers, %d runs (+%d warmup)%s", JARS, cp.classNames.size(), TRANSFORMERS, RUNS, WARMUP, PROFILE ? ", profiled" : ""));
+        for (String mode : new String[] { "plain", "asm" }) {
+            List<Result> results = new ArrayList<>();
+            for (int i = 0; i < WARMUP + RUNS; i++) {
+                Result result = launch(bouncerJar, mode, classList);
+                if (i >= WARMUP) {
+                    results.add(result);
+                }
+            }
+            report(mode, results);
+        }
+    }
+
+    private static Result launch(File bouncerJar, String mode, File classList) throws Throwable {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(new File(System.getProperty("java.home"), "bin/java").getAbsolutePath());
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path") + File.pathSeparator + bouncerJar.getAbsolutePath());
+        if (PROFILE) {
+            cmd.add("-Dcovers1624.classloader.profile=" + Long.MAX_VALUE / 1000000);
+        }
+        cmd.add(StartupProbe.class.getName());
+        cmd.add(mode);
+        cmd.add(classList.getAbsolutePath());
+
+        File log = File.createTempFile("mcl_startup", ".log");
+        log.deleteOnExit();
+        ProcessBuilder builder = new ProcessBuilder(cmd).redirectError(log);
+        long spawnMillis = System.currentTimeMillis();
+        long spawnNanos = System.nanoTime();
+        Process process = builder.start();
+        String line = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String l;
+            while ((l = reader.readLine()) != null) {
+                if (l.startsWith("STARTUP ")) {
+                    line = l;
+                }
+            }
+        }
+        int exit = process.waitFor();
+        long exitNanos = System.nanoTime() - spawnNanos;
+        if (exit != 0 || line == null) {
+            throw new IllegalStateException("Forked JVM failed with exit code " + exit + ":\n" + new String(Files.readAllBytes(log.toPath()), StandardCharsets.UTF_8));
+        }
+        String[] split = line.split(" ");
+        Result result = new Result();
+        result.jvmMillis = Long.parseLong(split[1]) - spawnMillis;
+        result.bouncerNanos = Long.parseLong(split[2]);
+        result.loadNanos = Long.parseLong(split[3]);
+        result.exitNanos = exitNanos;
+        for (int i = 0; i < result.stageNanos.length; i++) {
+            result.stageNanos[i] = Long.parseLong(split[4 + i]);
+        }
+        return result;
+    }
+
+    private static void report(String mode, List<Result> results) {
+        long[] toMain = new long[results.size()];
+        double jvm = 0, bouncer = 0, load = 0, exit = 0;
+        double[] stages = new double[LoadProfiler.Stage.values().length];
+        for (int i = 0; i < results.size(); i++) {
+            Result result = results.get(i);
+            toMain[i] = result.jvmMillis * 1000000 + result.bouncerNanos;
+            jvm += result.jvmMillis;
+            bouncer += result.bouncerNanos / 1e6;
+            load += result.loadNanos / 1e6;
+            exit += result.exitNanos / 1e6;
+            for (int s = 0; s < stages.length; s++) {
+                stages[s] += result.stageNanos[s] / 1e6;
+            }
+        }
+        Arrays.sort(toMain);
+        int n = results.size();
+        System.out.println(String.format(Locale.ROOT, "  %-6s time to main ms: min %7.1f  p50 %7.1f  p90 %7.1f  max %7.1f", mode, toMain[0] / 1e6, percentile(toMain, 0.5) / 1e6, percentile(toMain, 0.9) / 1e6, toMain[n - 1] / 1e6));
+        System.out.println(String.format(Locale.ROOT, "  %-6s mean phases ms: jvm boot %7.1f  bouncer setup %7.1f  class loading %7.1f  process total %7.1f", "", jvm / n, bouncer / n, load / n, exit / n));
+        if (PROFILE) {
+            StringBuilder builder = new StringBuilder(String.format(Locale.ROOT, "  %-6s mean stages ms:", ""));
+            for (LoadProfiler.Stage stage : LoadProfiler.Stage.values()) {
+                builder.append(String.format(Locale.ROOT, "  %s %7.1f", stage.name().toLowerCase(Locale.ROOT), stages[stage.ordinal()] / n));
+            }
+            System.out.println(builder);
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static File writeBouncerJar(SyntheticClasspath cp) throws IOException {
+        File file = new File(cp.dir.getParentFile(), cp.dir.getName() + "_bouncer.jar");
+        file.deleteOnExit();
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().putValue("Resolver-Path", cp.dir.getAbsolutePath());
+        try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(file), manifest)) {
+            List<String> transformers = new ArrayList<>();
+            for (int i = 0; i < TRANSFORMERS; i++) {
+                String name = "bench/T" + i;
+                transformers.add(name.replace('/', '.'));
+                write(jos, name + ".class", genTransformer(name));
+            }
+            write(jos, "bench/PlainBounce.class", genBouncer("bench/PlainBounce", "plain", false));
+            write(jos, "bench/AsmBounce.class", genBouncer("bench/AsmBounce", "asm", true));
+
+            writeServices(jos, IResourceResolverFactory.class, Collections.singletonList(SimpleResolver.class.getName()));
+            writeServices(jos, IClassTransformer.class, transformers);
+            writeServices(jos, IBounceClass.class, Arrays.asList("bench.PlainBounce", "bench.AsmBounce"));
+        }
+        return file;
+    }
+
+    private static void writeServices(JarOutputStream jos, Class<?> service, List<String> impls) throws IOException {
+        write(jos, "META-INF/services/" + service.getName(), String.join("\n", impls).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void write(JarOutputStream jos, String name, byte[] bytes) throws IOException {
+        jos.putNextEntry(new JarEntry(name));
+        jos.write(bytes);
+        jos.closeEntry();
+    }
+
+    private static byte[] genTransformer(String name) {
+        String superName = Type.getInternalName(StartupProbe.Transformer.class);
+        ClassWriter cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER, name, null, superName, null);
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, superName, "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(1, 1);
+        mv.visitEnd();
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static byte[] genBouncer(String name, String id, boolean useASM) {
+        ClassWriter cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER, name, null, "java/lang/Object", new String[] { Type.getInternalName(IBounceClass.class) });
+        AnnotationVisitor av = cw.visitAnnotation("Lnet/covers1624/classloader/api/BounceId;", true);
+        av.visit("value", id);
+        av.visitEnd();
+        if (useASM) {
+            cw.visitAnnotation("Lnet/covers1624/classloader/api/UseClassLoaderASM;", true).visitEnd();
+        }
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(1, 1);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "main", "([Ljava/lang/String;)V", null, new String[] { "java/lang/Throwable" });
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitMethodInsn(INVOKESTATIC, PROBE, "bounced", "([Ljava/lang/String;)V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(1, 2);
+        mv.visitEnd();
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static class Result {
+
+        private long jvmMillis;
+        private long bouncerNanos;
+        private long loadNanos;
+        private long exitNanos;
+        private final long[] stageNanos = new long[LoadProfiler.Stage.values().length];
+    }
+}
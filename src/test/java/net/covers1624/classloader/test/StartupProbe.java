@@ -0,0 +1,72 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.LaunchBouncer;
+import net.covers1624.classloader.api.IClassTransformer;
+import net.covers1624.classloader.profiling.LoadProfiler;
+import org.objectweb.asm.ClassReader;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Entry point of the JVMs forked by {@link StartupBenchmark}.
+ *
+ * Wraps {@link LaunchBouncer}, recording when the JVM handed control to us, and when
+ * the bounced main was reached. The synthetic bouncers call {@link #bounced}, which
+ * loads the classes listed in the file passed as the first argument, then reports
+ * its timings as a single 'STARTUP' line on stdout.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class StartupProbe {
+
+    private static long startNanos;
+    private static long startMillis;
+
+    public static void main(String[] args) throws Throwable {
+        startNanos = System.nanoTime();
+        startMillis = System.currentTimeMillis();
+        LaunchBouncer.main(args);
+    }
+
+    /**
+     * Called by the synthetic bouncers from their main.
+     *
+     * @param args The bouncer's arguments, the first being the class list file.
+     */
+    public static void bounced(String[] args) throws Throwable {
+        long mainNanos = System.nanoTime();
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        List<String> classes = Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8);
+        for (String name : classes) {
+            Class.forName(name, true, cl);
+        }
+        long doneNanos = System.nanoTime();
+
+        StringBuilder builder = new StringBuilder("STARTUP");
+        builder.append(' ').append(startMillis);
+        builder.append(' ').append(mainNanos - startNanos);
+        builder.append(' ').append(doneNanos - mainNanos);
+        LoadProfiler profiler = LaunchBouncer.classLoader.getProfiler();
+        for (LoadProfiler.Stage stage : LoadProfiler.Stage.values()) {
+            builder.append(' ').append(profiler != null ? profiler.getHistogram(stage).getTotalNanos() : 0);
+        }
+        System.out.println(builder);
+    }
+
+    /**
+     * Base of the synthetic transformers, reads each class header like a typical filtering transformer.
+     */
+    public static class Transformer implements IClassTransformer {
+
+        @Override
+        public byte[] transform(String name, byte[] bytes) {
+            if (bytes != null) {
+                new ClassReader(bytes).getSuperName();
+            }
+            return bytes;
+        }
+    }
+}
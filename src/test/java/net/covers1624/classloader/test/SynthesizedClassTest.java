@@ -0,0 +1,68 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.api.IClassTransformer;
+import org.junit.Test;
+import org.objectweb.asm.ClassWriter;
+
+import static org.junit.Assert.*;
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Transformers are passed null bytes for classes no resolver provides,
+ * and may synthesize them.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class SynthesizedClassTest {
+
+    @Test
+    public void testSynthesizedClass() throws Throwable {
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.addTransformer(new Synthesizer("gen.Synth"));
+        Class<?> clazz = cl.loadClass("gen.Synth");
+        assertSame(cl, clazz.getClassLoader());
+        assertEquals("gen.Synth", clazz.getName());
+
+        try {
+            cl.loadClass("gen.Missing");
+            fail("Class should not exist.");
+        } catch (ClassNotFoundException ignored) {
+        }
+    }
+
+    @Test
+    public void testSynthesizedClassInChild() throws Throwable {
+        ModularClassLoader root = new ModularClassLoader();
+        ModularClassLoader child = root.createChild();
+        child.addTransformer(new Synthesizer("gen.ChildSynth"));
+        Class<?> clazz = child.loadClass("gen.ChildSynth");
+        assertSame(child, clazz.getClassLoader());
+
+        try {
+            root.loadClass("gen.ChildSynth");
+            fail("Class should only exist in the child.");
+        } catch (ClassNotFoundException ignored) {
+        }
+    }
+
+    private static class Synthesizer implements IClassTransformer {
+
+        private final String target;
+
+        private Synthesizer(String target) {
+            this.target = target;
+        }
+
+        @Override
+        public byte[] transform(String name, byte[] bytes) {
+            if (bytes != null || !name.equals(target)) {
+                return bytes;
+            }
+            ClassWriter cw = new ClassWriter(0);
+            cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER, name.replace('.', '/'), null, "java/lang/Object", null);
+            cw.visitEnd();
+            return cw.toByteArray();
+        }
+    }
+}
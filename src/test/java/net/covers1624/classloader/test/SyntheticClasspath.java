@@ -0,0 +1,196 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.api.IClassTransformer;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates reproducible classpaths for exercising ModularClassLoader.
+ *
+ * A classpath is made of {@link #jars} jars each containing {@link #classesPerJar}
+ * classes, spread over a binary package tree {@link #packageDepth} levels deep.
+ * Every jar also contains the same {@link #duplicateResources} resources, so
+ * duplicate lookups can be measured. Generated classes have a constructor and
+ * a static 'next' method returning the next class in the same jar, so loading
+ * and linking one can be made to pull in others.
+ *
+ * Created by agent on 19/10/2026.
+ */
+public class SyntheticClasspath {
+
+    public int jars = 1;
+    public int classesPerJar = 10;
+    public int packageDepth = 1;
+    public int duplicateResources = 0;
+
+    public final List<File> jarFiles = new ArrayList<>();
+    public final List<String> classNames = new ArrayList<>();
+    public final List<String> resourceNames = new ArrayList<>();
+    public File dir;
+
+    public SyntheticClasspath jars(int jars) {
+        this.jars = jars;
+        return this;
+    }
+
+    public SyntheticClasspath classesPerJar(int classesPerJar) {
+        this.classesPerJar = classesPerJar;
+        return this;
+    }
+
+    public SyntheticClasspath packageDepth(int packageDepth) {
+        this.packageDepth = packageDepth;
+        return this;
+    }
+
+    public SyntheticClasspath duplicateResources(int duplicateResources) {
+        this.duplicateResources = duplicateResources;
+        return this;
+    }
+
+    /**
+     * Writes the jars into a new temp directory.
+     *
+     * @return this.
+     */
+    public SyntheticClasspath build() throws IOException {
+        dir = Files.createTempDirectory("mcl_synth").toFile();
+        dir.deleteOnExit();
+        for (int r = 0; r < duplicateResources; r++) {
+            resourceNames.add("META-INF/synth/resource_" + r + ".txt");
+        }
+        for (int j = 0; j < jars; j++) {
+            File file = new File(dir, "synth_" + j + ".jar");
+            file.deleteOnExit();
+            jarFiles.add(file);
+            try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(file))) {
+                List<String> names = new ArrayList<>();
+                for (int c = 0; c < classesPerJar; c++) {
+                    names.add(className(j, c));
+                }
+                for (int c = 0; c < classesPerJar; c++) {
+                    String name = names.get(c);
+                    String next = names.get((c + 1) % classesPerJar);
+                    jos.putNextEntry(new JarEntry(name + ".class"));
+                    jos.write(genClass(name, next));
+                    jos.closeEntry();
+                    classNames.add(name.replace('/', '.'));
+                }
+                for (String res : resourceNames) {
+                    jos.putNextEntry(new JarEntry(res));
+                    jos.write(("jar " + j + " " + res).getBytes(StandardCharsets.UTF_8));
+                    jos.closeEntry();
+                }
+            }
+        }
+        return this;
+    }
+
+    public List<URL> urls() {
+        List<URL> urls = new ArrayList<>();
+        for (File file : jarFiles) {
+            try {
+                urls.add(file.toURI().toURL());
+            } catch (MalformedURLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Writes a jar containing only a Manifest with a 'Resolver-Path' pointing
+     * at this classpath's directory, for use with SimpleResolver.
+     *
+     * @return The jar.
+     */
+    public File writeResolverManifestJar() throws IOException {
+        File file = new File(dir.getParentFile(), dir.getName() + "_manifest.jar");
+        file.deleteOnExit();
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().putValue("Resolver-Path", dir.getAbsolutePath());
+        //A jar of just the manifest.
+        try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(file), manifest)) {
+            jos.finish();
+        }
+        return file;
+    }
+
+    /**
+     * Creates distinct pass-through transformers, all sharing a counter.
+     *
+     * @param count   The number of transformers.
+     * @param counter Incremented for each transformer invocation.
+     * @return The transformers.
+     */
+    public static List<IClassTransformer> transformers(int count, AtomicLong counter) {
+        List<IClassTransformer> transformers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            transformers.add(new PassThroughTransformer(counter));
+        }
+        return Collections.unmodifiableList(transformers);
+    }
+
+    private String className(int jar, int clazz) {
+        StringBuilder builder = new StringBuilder("synth/j").append(jar).append('/');
+        for (int l = 0; l < packageDepth; l++) {
+            builder.append('p').append((clazz >> l) & 1).append('/');
+        }
+        return builder.append('C').append(clazz).toString();
+    }
+
+    private static byte[] genClass(String name, String next) {
+        ClassWriter cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER, name, null, "java/lang/Object", null);
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(1, 1);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "next", "()Ljava/lang/Class;", null, null);
+        mv.visitCode();
+        mv.visitLdcInsn(org.objectweb.asm.Type.getObjectType(next));
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(1, 0);
+        mv.visitEnd();
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    public static class PassThroughTransformer implements IClassTransformer {
+
+        private final AtomicLong counter;
+
+        public PassThroughTransformer(AtomicLong counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        public byte[] transform(String name, byte[] bytes) {
+            counter.incrementAndGet();
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.TransformerAgent;
+import net.covers1624.classloader.api.IClassTransformer;
+import org.junit.Test;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class TransformerAgentTest {
+
+    @Test
+    public void testAdapter() throws Throwable {
+        ClassLoader app = ClassLoader.getSystemClassLoader();
+        ClassLoader other = new ClassLoader(null) {
+        };
+        List<String> calls = new ArrayList<>();
+        IClassTransformer append = (name, bytes) -> {
+            calls.add("append " + name);
+            byte[] out = Arrays.copyOf(bytes, bytes.length + 1);
+            out[bytes.length] = 1;
+            return out;
+        };
+        IClassTransformer observe = (name, bytes) -> {
+            calls.add("observe " + bytes.length);
+            return bytes;
+        };
+        ClassFileTransformer adapter = TransformerAgent.adapt(Arrays.asList(append, observe), app);
+
+        byte[] input = new byte[4];
+        byte[] output = adapter.transform(app, "a/b/C", null, null, input);
+        assertEquals(5, output.length);
+        assertEquals(Arrays.asList("append a.b.C", "observe 5"), calls);
+
+        //Other loaders, excluded classes and redefinitions are left alone.
+        calls.clear();
+        assertNull(adapter.transform(other, "a/b/C", null, null, input));
+        assertNull(adapter.transform(null, "a/b/C", null, null, input));
+        assertNull(adapter.transform(app, "java/lang/Thing", null, null, input));
+        assertNull(adapter.transform(app, "a/b/C", TransformerAgentTest.class, null, input));
+        assertTrue(calls.isEmpty());
+
+        //Unchanged classes are reported as such.
+        assertNull(TransformerAgent.adapt(Arrays.asList(observe), null).transform(other, "a/b/C", null, null, input));
+        assertEquals(Arrays.asList("observe 4"), calls);
+    }
+
+    @Test
+    public void testNoSelfTransform() throws Throwable {
+        List<String> seen = new ArrayList<>();
+        ClassFileTransformer[] adapter = new ClassFileTransformer[1];
+        IClassTransformer nested = (name, bytes) -> {
+            seen.add(name);
+            if (name.equals("a.Outer")) {
+                //Simulates the JVM calling back for a class loaded whilst transforming.
+                try {
+                    adapter[0].transform(ClassLoader.getSystemClassLoader(), "a/Inner", null, null, new byte[0]);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            return bytes;
+        };
+        adapter[0] = TransformerAgent.adapt(Arrays.asList(nested), null);
+        adapter[0].transform(ClassLoader.getSystemClassLoader(), "a/Outer", null, null, new byte[0]);
+        assertEquals(Arrays.asList("a.Outer"), seen);
+    }
+}
@@ -0,0 +1,65 @@
+package net.covers1624.classloader.test;
+
+import net.covers1624.classloader.ModularClassLoader;
+import net.covers1624.classloader.api.IClassTransformer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by agent on 19/10/2026.
+ */
+public class TransformerDispatcherTest {
+
+    @Test
+    public void testDispatcherRunsChainInOrder() throws Throwable {
+        List<String> calls = new ArrayList<>();
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.useGeneratedDispatcher();
+        cl.addTransformer(new Recording("a", calls));
+        cl.addTransformer(new Recording("b", calls));
+        cl.loadClass("net.covers1624.classloader.K2BPair");
+        assertTrue(calls.contains("a:net.covers1624.classloader.K2BPair"));
+        assertEquals(calls.indexOf("a:net.covers1624.classloader.K2BPair") + 1, calls.indexOf("b:net.covers1624.classloader.K2BPair"));
+
+        //Regenerated when the chain changes.
+        cl.addTransformer(new Recording("c", calls));
+        calls.clear();
+        cl.loadClass("net.covers1624.classloader.api.BounceId");
+        assertTrue(calls.contains("c:net.covers1624.classloader.api.BounceId"));
+        assertEquals(calls.indexOf("a:net.covers1624.classloader.api.BounceId") + 2, calls.indexOf("c:net.covers1624.classloader.api.BounceId"));
+    }
+
+    @Test (expected = IllegalStateException.class)
+    public void testDispatcherPropagatesExceptions() throws Throwable {
+        ModularClassLoader cl = new ModularClassLoader();
+        cl.useGeneratedDispatcher();
+        cl.addTransformer((name, bytes) -> {
+            if (name.equals("net.covers1624.classloader.K2BPair")) {
+                throw new IllegalStateException(name);
+            }
+            return bytes;
+        });
+        cl.getClassBytes("net.covers1624.classloader.K2BPair");
+    }
+
+    private static class Recording implements IClassTransformer {
+
+        private final String id;
+        private final List<String> calls;
+
+        private Recording(String id, List<String> calls) {
+            this.id = id;
+            this.calls = calls;
+        }
+
+        @Override
+        public byte[] transform(String name, byte[] bytes) {
+            calls.add(id + ":" + name);
+            return bytes;
+        }
+    }
+}